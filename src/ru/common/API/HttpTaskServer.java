@@ -6,8 +6,11 @@ import com.sun.net.httpserver.HttpServer;
 import ru.common.API.handler.*;
 import ru.common.API.util.DurationAdapter;
 import ru.common.API.util.LocalDateTimeAdapter;
+import ru.common.API.util.PersistentIntSetAdapter;
+import ru.common.API.util.TaskTimeAdapterFactory;
 import ru.common.manager.task.Managers;
 import ru.common.manager.task.TaskManager;
+import ru.common.util.collections.PersistentIntSet;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -24,6 +27,8 @@ public class HttpTaskServer {
         return new GsonBuilder()
                 .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
                 .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapter(PersistentIntSet.class, new PersistentIntSetAdapter())
+                .registerTypeAdapterFactory(new TaskTimeAdapterFactory())
                 .create();
     }
 
@@ -44,6 +49,8 @@ public class HttpTaskServer {
         server.createContext("/subtasks", new SubTasksHandler(this.manager, this.gson));
         server.createContext("/history", new HistoryHandler(this.manager, this.gson));
         server.createContext("/prioritized", new PrioritizedHandler(this.manager, this.gson));
+        server.createContext("/search", new SearchHandler(this.manager, this.gson));
+        server.createContext("/stats", new StatsHandler(this.manager, this.gson));
     }
 
     public void start() {
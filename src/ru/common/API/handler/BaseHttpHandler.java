@@ -1,12 +1,24 @@
 package ru.common.API.handler;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
+import ru.common.model.task.TaskStatus;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class BaseHttpHandler {
     protected void sendText(HttpExchange http, String text) throws IOException {
@@ -17,6 +29,22 @@ public class BaseHttpHandler {
         http.close();
     }
 
+    protected void sendJsonArray(HttpExchange http, Gson gson, Stream<?> items) throws IOException {
+        http.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        http.sendResponseHeaders(200, 0);
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(http.getResponseBody(), StandardCharsets.UTF_8)))) {
+            writer.beginArray();
+            Iterator<?> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                Object item = iterator.next();
+                gson.toJson(item, item.getClass(), writer);
+            }
+            writer.endArray();
+        }
+        http.close();
+    }
+
     protected void sendNotFound(HttpExchange http, String message) throws IOException {
         byte[] resp = message.getBytes(StandardCharsets.UTF_8);
         http.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
@@ -33,6 +61,37 @@ public class BaseHttpHandler {
         http.close();
     }
 
+    protected void sendPreconditionFailed(HttpExchange http, String message) throws IOException {
+        byte[] resp = message.getBytes(StandardCharsets.UTF_8);
+        http.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        http.sendResponseHeaders(412, resp.length);
+        http.getResponseBody().write(resp);
+        http.close();
+    }
+
+    protected void addETag(HttpExchange http, long version) {
+        http.getResponseHeaders().add("ETag", "\"" + version + "\"");
+    }
+
+    protected Long getIfMatchVersion(HttpExchange exchange) {
+        String value = exchange.getRequestHeaders().getFirst("If-Match");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String tag = value.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректная версия: " + value);
+        }
+    }
+
     protected String readBody(HttpExchange exchange) throws IOException {
         try (InputStream is = exchange.getRequestBody()) {
             return new String(is.readAllBytes(), StandardCharsets.UTF_8);
@@ -68,4 +127,39 @@ public class BaseHttpHandler {
         }
         return null;
     }
+
+    protected Map<String, String> getQueryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    protected LocalDateTime parseDateTime(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректная дата: " + value);
+        }
+    }
+
+    protected TaskStatus parseStatus(String value) {
+        try {
+            return TaskStatus.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный статус: " + value);
+        }
+    }
 }
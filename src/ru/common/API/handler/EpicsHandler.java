@@ -3,6 +3,7 @@ package ru.common.API.handler;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import ru.common.manager.exceptions.VersionConflictException;
 import ru.common.manager.task.TaskManager;
 import ru.common.model.task.EpicTask;
 import ru.common.model.task.SubTask;
@@ -10,6 +11,7 @@ import ru.common.model.task.SubTask;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 public class EpicsHandler extends BaseHttpHandler implements HttpHandler {
     private final TaskManager manager;
@@ -28,8 +30,21 @@ public class EpicsHandler extends BaseHttpHandler implements HttpHandler {
                 case "GET" -> {
                     List<String> parts = getPathParts(exchange);
                     if (parts.size() == 1) {
-                        List<EpicTask> epics = manager.getAllEpics();
-                        sendText(exchange, gson.toJson(epics));
+                        Map<String, String> params = getQueryParams(exchange);
+                        String limit = params.get("limit");
+                        String status = params.get("status");
+                        if (status != null) {
+                            List<EpicTask> epics = manager.getTasksByStatus(parseStatus(status)).stream()
+                                    .filter(EpicTask.class::isInstance)
+                                    .map(EpicTask.class::cast)
+                                    .toList();
+                            sendText(exchange, gson.toJson(epics));
+                        } else if (limit != null) {
+                            int afterId = Integer.parseInt(params.getOrDefault("after", "0"));
+                            sendText(exchange, gson.toJson(manager.getEpicsPage(afterId, Integer.parseInt(limit))));
+                        } else {
+                            sendJsonArray(exchange, gson, manager.streamEpics());
+                        }
                     } else if (parts.size() == 2) {
                         Integer id = getIdFromPathOrQuery(exchange);
                         EpicTask epic = manager.getEpicById(id);
@@ -37,6 +52,7 @@ public class EpicsHandler extends BaseHttpHandler implements HttpHandler {
                             sendNotFound(exchange, "Epic not found");
                             return;
                         }
+                        addETag(exchange, epic.getVersion());
                         sendText(exchange, gson.toJson(epic));
                     } else if (parts.size() == 3 && "subtasks".equals(parts.get(2))) {
                         int id = Integer.parseInt(parts.get(1));
@@ -54,10 +70,17 @@ public class EpicsHandler extends BaseHttpHandler implements HttpHandler {
                 case "POST" -> {
                     String body = readBody(exchange);
                     EpicTask epic = gson.fromJson(body, EpicTask.class);
+                    Long expectedVersion = getIfMatchVersion(exchange);
                     boolean shouldCreate = (epic.getId() == 0) || (manager.getEpicById(epic.getId()) == null);
+                    if (shouldCreate && expectedVersion != null) {
+                        sendPreconditionFailed(exchange, "Эпик для обновления не найден");
+                        return;
+                    }
                     if (shouldCreate) {
                         EpicTask toCreate = new EpicTask(epic.getName(), epic.getDescription());
                         manager.createEpic(toCreate);
+                    } else if (expectedVersion != null) {
+                        manager.updateEpic(epic, expectedVersion);
                     } else {
                         manager.updateEpic(epic);
                     }
@@ -81,6 +104,8 @@ public class EpicsHandler extends BaseHttpHandler implements HttpHandler {
                 }
                 default -> sendNotFound(exchange, "Unsupported HTTP method");
             }
+        } catch (VersionConflictException e) {
+            sendPreconditionFailed(exchange, e.getMessage());
         } catch (IllegalArgumentException e) {
             sendHasInteractions(exchange, e.getMessage());
         } catch (Exception e) {
@@ -4,9 +4,15 @@ import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import ru.common.manager.task.TaskManager;
+import ru.common.model.task.Task;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
     private final TaskManager manager;
@@ -23,11 +29,30 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
         try {
             switch (method) {
                 case "GET" -> {
-                    String jsonPrioritized = gson.toJson(manager.getPrioritizedTasks());
+                    Map<String, String> params = getQueryParams(exchange);
+                    List<String> parts = getPathParts(exchange);
+                    if (parts.size() == 2 && "free-slot".equals(parts.get(1))) {
+                        sendFreeSlot(exchange, params);
+                        return;
+                    }
+                    if (parts.size() == 2 && "conflicts".equals(parts.get(1))) {
+                        sendText(exchange, gson.toJson(manager.findTimeConflicts()));
+                        return;
+                    }
+                    List<Task> prioritized;
+                    if (params.containsKey("from") || params.containsKey("to")) {
+                        prioritized = manager.getPrioritizedTasks(
+                                parseDateTime(params.get("from")), parseDateTime(params.get("to")));
+                    } else {
+                        prioritized = manager.getPrioritizedTasks();
+                    }
+                    String jsonPrioritized = gson.toJson(prioritized);
                     sendText(exchange, jsonPrioritized);
                 }
                 default -> sendNotFound(exchange, "Only GET supported for /prioritized");
             }
+        } catch (IllegalArgumentException e) {
+            sendHasInteractions(exchange, e.getMessage());
         } catch (Exception e) {
             String jsonError = String.format("{\"error\":\"%s\"}", e.getMessage());
             exchange.sendResponseHeaders(500, jsonError.getBytes(StandardCharsets.UTF_8).length);
@@ -35,4 +60,23 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
             exchange.close();
         }
     }
+
+    private void sendFreeSlot(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String minutes = params.get("duration");
+        if (minutes == null) {
+            throw new IllegalArgumentException("Не задана длительность в минутах");
+        }
+        Duration duration;
+        try {
+            duration = Duration.ofMinutes(Long.parseLong(minutes));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Некорректная длительность: " + minutes);
+        }
+        LocalDateTime after = parseDateTime(params.get("after"));
+        LocalDateTime slot = manager.findNextFreeSlot(after != null ? after : LocalDateTime.now(), duration);
+        Map<String, LocalDateTime> response = new LinkedHashMap<>();
+        response.put("startTime", slot);
+        response.put("endTime", slot.plus(duration));
+        sendText(exchange, gson.toJson(response));
+    }
 }
@@ -0,0 +1,50 @@
+package ru.common.API.handler;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.common.manager.task.TaskManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class SearchHandler extends BaseHttpHandler implements HttpHandler {
+    private static final int DEFAULT_LIMIT = 20;
+    private final TaskManager manager;
+    private final Gson gson;
+
+    public SearchHandler(TaskManager manager, Gson gson) {
+        this.manager = manager;
+        this.gson = gson;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        try {
+            switch (method) {
+                case "GET" -> {
+                    Map<String, String> params = getQueryParams(exchange);
+                    String limit = params.get("limit");
+                    int pageSize = limit != null ? Integer.parseInt(limit) : DEFAULT_LIMIT;
+                    List<String> parts = getPathParts(exchange);
+                    if (parts.size() == 2 && "autocomplete".equals(parts.get(1))) {
+                        sendText(exchange, gson.toJson(manager.autocomplete(params.getOrDefault("prefix", ""), pageSize)));
+                    } else {
+                        sendText(exchange, gson.toJson(manager.search(params.getOrDefault("q", ""), pageSize)));
+                    }
+                }
+                default -> sendNotFound(exchange, "Only GET supported for /search");
+            }
+        } catch (IllegalArgumentException e) {
+            sendHasInteractions(exchange, e.getMessage());
+        } catch (Exception e) {
+            String jsonError = String.format("{\"error\":\"%s\"}", e.getMessage());
+            exchange.sendResponseHeaders(500, jsonError.getBytes(StandardCharsets.UTF_8).length);
+            exchange.getResponseBody().write(jsonError.getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        }
+    }
+}
@@ -3,12 +3,14 @@ package ru.common.API.handler;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import ru.common.manager.exceptions.VersionConflictException;
 import ru.common.manager.task.TaskManager;
 import ru.common.model.task.SubTask;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 public class SubTasksHandler extends BaseHttpHandler implements HttpHandler {
     private final TaskManager manager;
@@ -27,24 +29,45 @@ public class SubTasksHandler extends BaseHttpHandler implements HttpHandler {
                 case "GET" -> {
                     Integer id = getIdFromPathOrQuery(exchange);
                     if (id == null) {
-                        List<SubTask> subTasks = manager.getAllSubTasks();
-                        sendText(exchange, gson.toJson(subTasks));
+                        Map<String, String> params = getQueryParams(exchange);
+                        String limit = params.get("limit");
+                        String status = params.get("status");
+                        if (status != null) {
+                            List<SubTask> subTasks = manager.getTasksByStatus(parseStatus(status)).stream()
+                                    .filter(SubTask.class::isInstance)
+                                    .map(SubTask.class::cast)
+                                    .toList();
+                            sendText(exchange, gson.toJson(subTasks));
+                        } else if (limit != null) {
+                            int afterId = Integer.parseInt(params.getOrDefault("after", "0"));
+                            sendText(exchange, gson.toJson(manager.getSubTasksPage(afterId, Integer.parseInt(limit))));
+                        } else {
+                            sendJsonArray(exchange, gson, manager.streamSubTasks());
+                        }
                     } else {
                         SubTask subTask = manager.getSubTaskById(id);
                         if (subTask == null) {
                             sendNotFound(exchange, "SubTask not found");
                             return;
                         }
+                        addETag(exchange, subTask.getVersion());
                         sendText(exchange, gson.toJson(subTask));
                     }
                 }
                 case "POST" -> {
                     String body = readBody(exchange);
                     SubTask subTask = gson.fromJson(body, SubTask.class);
+                    Long expectedVersion = getIfMatchVersion(exchange);
                     boolean shouldCreate = (subTask.getId() == 0) || (manager.getSubTaskById(subTask.getId()) == null);
+                    if (shouldCreate && expectedVersion != null) {
+                        sendPreconditionFailed(exchange, "Подзадача для обновления не найдена");
+                        return;
+                    }
                     if (shouldCreate) {
                         SubTask toCreate = new SubTask(subTask.getName(), subTask.getDescription(), subTask.getParentId());
                         manager.createSubTask(toCreate);
+                    } else if (expectedVersion != null) {
+                        manager.updateSubTask(subTask, expectedVersion);
                     } else {
                         manager.updateSubTask(subTask);
                     }
@@ -67,6 +90,8 @@ public class SubTasksHandler extends BaseHttpHandler implements HttpHandler {
                 }
                 default -> sendNotFound(exchange, "Unsupported HTTP method");
             }
+        } catch (VersionConflictException e) {
+            sendPreconditionFailed(exchange, e.getMessage());
         } catch (IllegalArgumentException e) {
             sendHasInteractions(exchange, e.getMessage());
         } catch (Exception e) {
@@ -3,12 +3,16 @@ package ru.common.API.handler;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import ru.common.manager.exceptions.VersionConflictException;
 import ru.common.manager.task.TaskManager;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
 import ru.common.model.task.Task;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 public class TasksHandler extends BaseHttpHandler implements HttpHandler {
     private final TaskManager manager;
@@ -27,24 +31,44 @@ public class TasksHandler extends BaseHttpHandler implements HttpHandler {
                 case "GET" -> {
                     Integer id = getIdFromPathOrQuery(exchange);
                     if (id == null) {
-                        List<Task> tasks = manager.getAllTasks();
-                        sendText(exchange, gson.toJson(tasks));
+                        Map<String, String> params = getQueryParams(exchange);
+                        String limit = params.get("limit");
+                        String status = params.get("status");
+                        if (status != null) {
+                            List<Task> tasks = manager.getTasksByStatus(parseStatus(status)).stream()
+                                    .filter(task -> !(task instanceof EpicTask) && !(task instanceof SubTask))
+                                    .toList();
+                            sendText(exchange, gson.toJson(tasks));
+                        } else if (limit != null) {
+                            int afterId = Integer.parseInt(params.getOrDefault("after", "0"));
+                            sendText(exchange, gson.toJson(manager.getTasksPage(afterId, Integer.parseInt(limit))));
+                        } else {
+                            sendJsonArray(exchange, gson, manager.streamTasks());
+                        }
                     } else {
                         Task task = manager.getTaskById(id);
                         if (task == null) {
                             sendNotFound(exchange, "Task not found");
                             return;
                         }
+                        addETag(exchange, task.getVersion());
                         sendText(exchange, gson.toJson(task));
                     }
                 }
                 case "POST" -> {
                     String body = readBody(exchange);
                     Task task = gson.fromJson(body, Task.class);
+                    Long expectedVersion = getIfMatchVersion(exchange);
                     boolean shouldCreate = (task.getId() == 0) || (manager.getTaskById(task.getId()) == null);
+                    if (shouldCreate && expectedVersion != null) {
+                        sendPreconditionFailed(exchange, "Задача для обновления не найдена");
+                        return;
+                    }
                     if (shouldCreate) {
                         Task toCreate = new Task(task.getName(), task.getDescription(), task.getStartTime(), task.getDuration());
                         manager.createTask(toCreate);
+                    } else if (expectedVersion != null) {
+                        manager.updateTask(task, expectedVersion);
                     } else {
                         manager.updateTask(task);
                     }
@@ -68,6 +92,8 @@ public class TasksHandler extends BaseHttpHandler implements HttpHandler {
                 }
                 default -> sendNotFound(exchange, "Unsupported HTTP method");
             }
+        } catch (VersionConflictException e) {
+            sendPreconditionFailed(exchange, e.getMessage());
         } catch (IllegalArgumentException e) {
             sendHasInteractions(exchange, e.getMessage());
         } catch (Exception e) {
@@ -0,0 +1,39 @@
+package ru.common.API.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.common.util.collections.PersistentIntSet;
+
+import java.io.IOException;
+
+public class PersistentIntSetAdapter extends TypeAdapter<PersistentIntSet> {
+    @Override
+    public void write(JsonWriter out, PersistentIntSet value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (int id : value.toArray()) {
+            out.value(id);
+        }
+        out.endArray();
+    }
+
+    @Override
+    public PersistentIntSet read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return PersistentIntSet.empty();
+        }
+        PersistentIntSet result = PersistentIntSet.empty();
+        in.beginArray();
+        while (in.hasNext()) {
+            result = result.add(in.nextInt());
+        }
+        in.endArray();
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.common.API.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import ru.common.model.task.Task;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Время задачи хранится в примитивных полях, которые Gson не видит, поэтому startTime и duration
+ * пишутся и читаются через геттеры и сеттеры — формат JSON остаётся прежним.
+ */
+public class TaskTimeAdapterFactory implements TypeAdapterFactory {
+    private static final String START_TIME = "startTime";
+    private static final String DURATION = "duration";
+    private static final String STATUS = "status";
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!Task.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+        TypeAdapter<LocalDateTime> times = gson.getAdapter(LocalDateTime.class);
+        TypeAdapter<Duration> durations = gson.getAdapter(Duration.class);
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                if (value == null) {
+                    out.nullValue();
+                    return;
+                }
+                Task task = (Task) value;
+                JsonObject fields = delegate.toJsonTree(value).getAsJsonObject();
+                JsonObject json = new JsonObject();
+                for (Map.Entry<String, JsonElement> field : fields.entrySet()) {
+                    json.add(field.getKey(), field.getValue());
+                    if (STATUS.equals(field.getKey())) {
+                        addTime(json, task);
+                    }
+                }
+                if (!fields.has(STATUS)) {
+                    addTime(json, task);
+                }
+                elements.write(out, json);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                JsonElement tree = elements.read(in);
+                if (tree == null || !tree.isJsonObject()) {
+                    return delegate.fromJsonTree(tree);
+                }
+                JsonObject json = tree.getAsJsonObject();
+                JsonElement startTime = json.remove(START_TIME);
+                JsonElement duration = json.remove(DURATION);
+                T value = delegate.fromJsonTree(json);
+                if (value != null) {
+                    Task task = (Task) value;
+                    task.setStartTime(isNull(startTime) ? null : times.fromJsonTree(startTime));
+                    task.setDuration(isNull(duration) ? null : durations.fromJsonTree(duration));
+                }
+                return value;
+            }
+
+            private void addTime(JsonObject json, Task task) {
+                if (task.getStartTime() != null) {
+                    json.add(START_TIME, times.toJsonTree(task.getStartTime()));
+                }
+                if (task.getDuration() != null) {
+                    json.add(DURATION, durations.toJsonTree(task.getDuration()));
+                }
+            }
+        };
+    }
+
+    private static boolean isNull(JsonElement element) {
+        return element == null || element.isJsonNull();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.common.manager.analytics;
+
+import ru.common.manager.event.TaskEvent;
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.manager.event.TaskEventType;
+import ru.common.manager.task.TaskManager;
+
+import java.util.Objects;
+
+/**
+ * Колоночная копия менеджера. Загружается из снимка и затем догоняет менеджер по его событиям
+ * при каждом {@link #sync()}; если подписка отстала и события потеряны, копия перестраивается
+ * из свежего снимка. Как и подписка, используется из одного потока.
+ */
+public class TaskColumnMirror {
+    private final TaskManager manager;
+    private final TaskColumnStore store = new TaskColumnStore();
+    private TaskEventSubscription subscription;
+
+    public TaskColumnMirror(TaskManager manager) {
+        this.manager = Objects.requireNonNull(manager, "Менеджер не может быть null");
+        reload();
+    }
+
+    public TaskColumnStore sync() {
+        TaskEvent event;
+        while ((event = subscription.poll()) != null) {
+            if (event.getType() == TaskEventType.REMOVED) {
+                store.remove(event.getTaskId());
+            } else {
+                store.put(event.getTask());
+            }
+        }
+        if (subscription.hasMissedEvents()) {
+            reload();
+        }
+        return store;
+    }
+
+    public TaskColumnStore getStore() {
+        return store;
+    }
+
+    private void reload() {
+        subscription = manager.subscribe();
+        TaskManager snapshot = manager.snapshot();
+        store.clear();
+        snapshot.getAllTasks().forEach(store::put);
+        snapshot.getAllEpics().forEach(store::put);
+        snapshot.getAllSubTasks().forEach(store::put);
+    }
+}
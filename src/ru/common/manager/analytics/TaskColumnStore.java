@@ -0,0 +1,242 @@
+package ru.common.manager.analytics;
+
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskStatus;
+import ru.common.model.task.TaskType;
+import ru.common.util.collections.IntObjectMap;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Колоночное хранилище задач для агрегирующих запросов: каждое поле лежит в своём примитивном массиве,
+ * строки плотные (удаление переносит последнюю строку на место удалённой). Агрегаты считаются простыми
+ * циклами по массивам, а на больших объёмах — параллельно по блокам строк.
+ * Хранилище не потокобезопасно: заполнять и опрашивать его нужно из одного потока.
+ */
+public class TaskColumnStore {
+    public static final int NO_PARENT = Integer.MIN_VALUE;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int BLOCK_SIZE = 1 << 14;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final IntObjectMap<Integer> rows = new IntObjectMap<>();
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int[] parentIds = new int[INITIAL_CAPACITY];
+    private long[] startMinutes = new long[INITIAL_CAPACITY];
+    private int[] durations = new int[INITIAL_CAPACITY];
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return rows.containsKey(id);
+    }
+
+    public void put(Task task) {
+        Integer existing = rows.get(task.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            ensureCapacity(size + 1);
+            row = size++;
+            rows.put(task.getId(), row);
+        }
+        ids[row] = task.getId();
+        types[row] = (byte) typeOf(task).ordinal();
+        statuses[row] = (byte) task.getStatus().ordinal();
+        Integer parentId = task instanceof SubTask subTask ? subTask.getParentId() : null;
+        parentIds[row] = parentId != null ? parentId : NO_PARENT;
+        startMinutes[row] = task.getStartEpochMinute();
+        durations[row] = task.getDurationMinutes();
+    }
+
+    public boolean remove(int id) {
+        Integer removed = rows.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        int row = removed;
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            types[row] = types[last];
+            statuses[row] = statuses[last];
+            parentIds[row] = parentIds[last];
+            startMinutes[row] = startMinutes[last];
+            durations[row] = durations[last];
+            rows.put(ids[row], row);
+        }
+        return true;
+    }
+
+    public void clear() {
+        rows.clear();
+        size = 0;
+    }
+
+    public int count(TaskType type, TaskStatus status) {
+        byte typeCode = (byte) type.ordinal();
+        byte statusCode = (byte) status.ordinal();
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            count += types[row] == typeCode && statuses[row] == statusCode ? 1 : 0;
+        }
+        return count;
+    }
+
+    public Map<TaskType, Map<TaskStatus, Integer>> countByTypeAndStatus() {
+        int[] counts = new int[TYPES.length * STATUSES.length];
+        for (int row = 0; row < size; row++) {
+            counts[types[row] * STATUSES.length + statuses[row]]++;
+        }
+        Map<TaskType, Map<TaskStatus, Integer>> result = new EnumMap<>(TaskType.class);
+        for (TaskType type : TYPES) {
+            result.put(type, toStatusMap(counts, type.ordinal() * STATUSES.length));
+        }
+        return result;
+    }
+
+    /**
+     * Суммарная длительность задач и подзадач с заданным временем; эпики не учитываются,
+     * так как их длительность складывается из подзадач.
+     */
+    public long totalScheduledMinutes() {
+        byte epic = (byte) TaskType.EPIC.ordinal();
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            boolean scheduled = types[row] != epic && startMinutes[row] != Task.NO_START && durations[row] > 0;
+            total += scheduled ? durations[row] : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Занятые минуты по календарным дням. Интервал, переходящий через полночь, делится между днями.
+     */
+    public SortedMap<LocalDate, Long> scheduledMinutesByDay() {
+        Map<Long, Long> byDay = aggregate(this::scheduledMinutesByDay, TaskColumnStore::mergeSums);
+        SortedMap<LocalDate, Long> result = new TreeMap<>();
+        byDay.forEach((day, minutes) -> result.put(LocalDate.ofEpochDay(day), minutes));
+        return result;
+    }
+
+    /**
+     * Число подзадач каждого статуса по эпикам. Эпики без подзадач в результат не попадают.
+     */
+    public Map<Integer, Map<TaskStatus, Integer>> statusCountsByEpic() {
+        Map<Integer, int[]> byEpic = aggregate(this::statusCountsByEpic, TaskColumnStore::mergeCounts);
+        Map<Integer, Map<TaskStatus, Integer>> result = new HashMap<>();
+        byEpic.forEach((epicId, counts) -> result.put(epicId, toStatusMap(counts, 0)));
+        return result;
+    }
+
+    private Map<Long, Long> scheduledMinutesByDay(int from, int to) {
+        byte epic = (byte) TaskType.EPIC.ordinal();
+        Map<Long, Long> byDay = new HashMap<>();
+        for (int row = from; row < to; row++) {
+            if (types[row] == epic || startMinutes[row] == Task.NO_START || durations[row] <= 0) {
+                continue;
+            }
+            long start = startMinutes[row];
+            long end = start + durations[row];
+            while (start < end) {
+                long day = Math.floorDiv(start, MINUTES_PER_DAY);
+                long dayEnd = Math.min(end, (day + 1) * MINUTES_PER_DAY);
+                byDay.merge(day, dayEnd - start, Long::sum);
+                start = dayEnd;
+            }
+        }
+        return byDay;
+    }
+
+    private Map<Integer, int[]> statusCountsByEpic(int from, int to) {
+        byte subTask = (byte) TaskType.SUBTASK.ordinal();
+        Map<Integer, int[]> byEpic = new HashMap<>();
+        for (int row = from; row < to; row++) {
+            if (types[row] == subTask && parentIds[row] != NO_PARENT) {
+                byEpic.computeIfAbsent(parentIds[row], id -> new int[STATUSES.length])[statuses[row]]++;
+            }
+        }
+        return byEpic;
+    }
+
+    private <R> R aggregate(RangeAggregation<R> aggregation, BinaryOperator<R> merge) {
+        int rowCount = size;
+        if (rowCount < PARALLEL_THRESHOLD) {
+            return aggregation.apply(0, rowCount);
+        }
+        int blocks = (rowCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return IntStream.range(0, blocks)
+                .parallel()
+                .mapToObj(block -> aggregation.apply(block * BLOCK_SIZE, Math.min(rowCount, (block + 1) * BLOCK_SIZE)))
+                .reduce(merge)
+                .orElseGet(() -> aggregation.apply(0, 0));
+    }
+
+    private static Map<Long, Long> mergeSums(Map<Long, Long> left, Map<Long, Long> right) {
+        right.forEach((day, minutes) -> left.merge(day, minutes, Long::sum));
+        return left;
+    }
+
+    private static Map<Integer, int[]> mergeCounts(Map<Integer, int[]> left, Map<Integer, int[]> right) {
+        right.forEach((epicId, counts) -> left.merge(epicId, counts, (a, b) -> {
+            for (int i = 0; i < a.length; i++) {
+                a[i] += b[i];
+            }
+            return a;
+        }));
+        return left;
+    }
+
+    private static Map<TaskStatus, Integer> toStatusMap(int[] counts, int offset) {
+        Map<TaskStatus, Integer> result = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : STATUSES) {
+            result.put(status, counts[offset + status.ordinal()]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static TaskType typeOf(Task task) {
+        if (task instanceof EpicTask) {
+            return TaskType.EPIC;
+        }
+        return task instanceof SubTask ? TaskType.SUBTASK : TaskType.TASK;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        parentIds = Arrays.copyOf(parentIds, newCapacity);
+        startMinutes = Arrays.copyOf(startMinutes, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+    }
+
+    @FunctionalInterface
+    private interface RangeAggregation<R> {
+        R apply(int from, int to);
+    }
+}
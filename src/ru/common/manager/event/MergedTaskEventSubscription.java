@@ -0,0 +1,53 @@
+package ru.common.manager.event;
+
+import java.util.List;
+
+/**
+ * Подписка на несколько независимых буферов событий. Источники опрашиваются по кругу,
+ * поэтому порядок сохраняется внутри каждого источника, но не между ними.
+ */
+class MergedTaskEventSubscription extends TaskEventSubscription {
+    private final List<TaskEventSubscription> sources;
+    private int current;
+
+    MergedTaskEventSubscription(List<TaskEventSubscription> sources) {
+        super(null, 0);
+        this.sources = List.copyOf(sources);
+    }
+
+    @Override
+    public TaskEvent poll() {
+        for (int i = 0; i < sources.size(); i++) {
+            TaskEventSubscription source = sources.get(current);
+            current = (current + 1) % sources.size();
+            TaskEvent event = source.poll();
+            if (event != null) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long getLag() {
+        long lag = 0;
+        for (TaskEventSubscription source : sources) {
+            lag += source.getLag();
+        }
+        return lag;
+    }
+
+    @Override
+    public long getMissedEvents() {
+        long missed = 0;
+        for (TaskEventSubscription source : sources) {
+            missed += source.getMissedEvents();
+        }
+        return missed;
+    }
+
+    @Override
+    public boolean hasMissedEvents() {
+        return getMissedEvents() > 0;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.common.manager.event;
+
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskType;
+
+import java.util.Objects;
+
+/**
+ * Событие изменения задачи. Содержит копию задачи после изменения (для REMOVED — последнюю
+ * сохранённую копию), версию менеджера и порядковый номер события в буфере.
+ */
+public class TaskEvent {
+    private final long sequence;
+    private final long version;
+    private final TaskEventType type;
+    private final TaskType taskType;
+    private final int taskId;
+    private final Task task;
+
+    public TaskEvent(long sequence, long version, TaskEventType type, TaskType taskType, Task task) {
+        this.sequence = sequence;
+        this.version = version;
+        this.type = Objects.requireNonNull(type, "Тип события не может быть null");
+        this.taskType = Objects.requireNonNull(taskType, "Тип задачи не может быть null");
+        this.task = Objects.requireNonNull(task, "Задача не может быть null");
+        this.taskId = task.getId();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public TaskEventType getType() {
+        return type;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d v%d %s %s %d", sequence, version, type, taskType, taskId);
+    }
+}
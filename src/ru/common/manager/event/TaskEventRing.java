@@ -0,0 +1,51 @@
+package ru.common.manager.event;
+
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskType;
+
+/**
+ * Кольцевой буфер событий фиксированного размера с одним писателем и любым числом подписчиков.
+ * Запись не ждёт подписчиков: новое событие затирает самое старое, а отставший подписчик
+ * узнаёт об этом по номерам событий и получает счётчик пропущенных.
+ */
+public class TaskEventRing {
+    private final TaskEvent[] slots;
+    private final int mask;
+    private volatile long cursor = -1;
+
+    public TaskEventRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер буфера должен быть больше нуля");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new TaskEvent[size];
+        this.mask = size - 1;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public TaskEvent publish(long version, TaskEventType type, TaskType taskType, Task task) {
+        long sequence = cursor + 1;
+        TaskEvent event = new TaskEvent(sequence, version, type, taskType, task);
+        slots[(int) (sequence & mask)] = event;
+        cursor = sequence;
+        return event;
+    }
+
+    public TaskEventSubscription subscribe() {
+        return new TaskEventSubscription(this, cursor + 1);
+    }
+
+    TaskEvent slot(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+}
@@ -0,0 +1,64 @@
+package ru.common.manager.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Курсор одного подписчика в {@link TaskEventRing}. Читается из одного потока;
+ * если писатель обогнал подписчика на весь буфер, недоступные события пропускаются
+ * и учитываются в {@link #getMissedEvents()}.
+ */
+public class TaskEventSubscription {
+    private final TaskEventRing ring;
+    private long next;
+    private long missedEvents;
+
+    TaskEventSubscription(TaskEventRing ring, long next) {
+        this.ring = ring;
+        this.next = next;
+    }
+
+    public static TaskEventSubscription merge(List<TaskEventSubscription> subscriptions) {
+        return subscriptions.size() == 1 ? subscriptions.get(0) : new MergedTaskEventSubscription(subscriptions);
+    }
+
+    public TaskEvent poll() {
+        while (true) {
+            long published = ring.getCursor();
+            if (next > published) {
+                return null;
+            }
+            long oldest = published - ring.getCapacity() + 1;
+            if (next < oldest) {
+                missedEvents += oldest - next;
+                next = oldest;
+            }
+            TaskEvent event = ring.slot(next);
+            if (event.getSequence() == next) {
+                next++;
+                return event;
+            }
+        }
+    }
+
+    public List<TaskEvent> drain(int maxEvents) {
+        List<TaskEvent> events = new ArrayList<>();
+        TaskEvent event;
+        while (events.size() < maxEvents && (event = poll()) != null) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    public long getLag() {
+        return Math.max(0, ring.getCursor() + 1 - next);
+    }
+
+    public long getMissedEvents() {
+        return missedEvents;
+    }
+
+    public boolean hasMissedEvents() {
+        return missedEvents > 0;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.common.manager.event;
+
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    REMOVED
+}
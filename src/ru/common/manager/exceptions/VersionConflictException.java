@@ -0,0 +1,7 @@
+package ru.common.manager.exceptions;
+
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
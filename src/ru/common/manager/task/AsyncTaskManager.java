@@ -0,0 +1,105 @@
+package ru.common.manager.task;
+
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Неблокирующий вариант {@link TaskManager}: каждая операция возвращает {@link CompletableFuture}.
+ */
+public interface AsyncTaskManager {
+    CompletableFuture<EpicTask> createEpic(EpicTask epic);
+
+    CompletableFuture<List<EpicTask>> getAllEpics();
+
+    CompletableFuture<List<EpicTask>> getEpicsPage(int afterId, int limit);
+
+    CompletableFuture<Stream<EpicTask>> streamEpics();
+
+    CompletableFuture<Void> removeAllEpics();
+
+    CompletableFuture<EpicTask> getEpicById(int id);
+
+    CompletableFuture<Boolean> updateEpic(EpicTask epic);
+
+    CompletableFuture<Boolean> updateEpic(EpicTask epic, long expectedVersion);
+
+    CompletableFuture<Boolean> removeEpic(EpicTask epic);
+
+    CompletableFuture<Task> createTask(Task task);
+
+    CompletableFuture<List<Task>> createTasks(Collection<? extends Task> tasks);
+
+    CompletableFuture<List<Task>> getAllTasks();
+
+    CompletableFuture<List<Task>> getTasksPage(int afterId, int limit);
+
+    CompletableFuture<Stream<Task>> streamTasks();
+
+    CompletableFuture<Void> removeAllTasks();
+
+    CompletableFuture<Task> getTaskById(int id);
+
+    CompletableFuture<SubTask> getSubTaskById(int id);
+
+    CompletableFuture<Boolean> updateTask(Task task);
+
+    CompletableFuture<Boolean> updateTask(Task task, long expectedVersion);
+
+    CompletableFuture<Boolean> removeTask(Task task);
+
+    CompletableFuture<SubTask> createSubTask(SubTask subTask);
+
+    CompletableFuture<List<SubTask>> createSubTasks(Collection<? extends SubTask> subTasks);
+
+    CompletableFuture<List<SubTask>> getAllSubTasks();
+
+    CompletableFuture<List<SubTask>> getSubTasksPage(int afterId, int limit);
+
+    CompletableFuture<Stream<SubTask>> streamSubTasks();
+
+    CompletableFuture<Void> removeAllSubTasks();
+
+    CompletableFuture<Boolean> updateSubTask(SubTask subTask);
+
+    CompletableFuture<Boolean> updateSubTask(SubTask subTask, long expectedVersion);
+
+    CompletableFuture<Boolean> removeSubTask(int subTaskId);
+
+    CompletableFuture<List<SubTask>> getSubTasksByEpicId(int epicId);
+
+    CompletableFuture<List<Task>> getHistory();
+
+    CompletableFuture<String> getHistoryAsString();
+
+    CompletableFuture<List<Task>> getPrioritizedTasks();
+
+    CompletableFuture<List<Task>> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    CompletableFuture<List<Task>> getTasksByStatus(TaskStatus status);
+
+    CompletableFuture<List<Integer>> search(String query, int limit);
+
+    CompletableFuture<List<String>> autocomplete(String prefix, int limit);
+
+    CompletableFuture<LocalDateTime> findNextFreeSlot(LocalDateTime after, Duration duration);
+
+    CompletableFuture<List<TaskConflict>> findTimeConflicts();
+
+    CompletableFuture<TaskStats> getStats(LocalDateTime now);
+
+    CompletableFuture<TaskEventSubscription> subscribe();
+
+    CompletableFuture<TaskManager> snapshot();
+}
@@ -0,0 +1,212 @@
+package ru.common.manager.task;
+
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+import ru.common.model.task.TaskType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Счётчики для сводки по доске, обновляемые при каждом изменении задачи. Сроки незавершённых задач
+ * лежат в дереве с размерами поддеревьев, поэтому число просроченных на любой момент считается
+ * за O(log n) без изменения состояния: сводку можно запрашивать параллельно и на любой момент.
+ */
+class BoardStats {
+    private static final int STATUS_COUNT = TaskStatus.values().length;
+
+    private final int[] counts = new int[TaskType.values().length * STATUS_COUNT];
+    private final EndCounts pendingEnds = new EndCounts();
+    private long scheduledMinutes;
+
+    public void add(Task task) {
+        counts[slot(task)]++;
+        if (isTimed(task)) {
+            scheduledMinutes += Math.max(0, task.getDurationMinutes());
+            if (task.getStatus() != TaskStatus.DONE) {
+                pendingEnds.add(endMinute(task));
+            }
+        }
+    }
+
+    public void remove(Task task) {
+        counts[slot(task)]--;
+        if (isTimed(task)) {
+            scheduledMinutes -= Math.max(0, task.getDurationMinutes());
+            if (task.getStatus() != TaskStatus.DONE) {
+                pendingEnds.remove(endMinute(task));
+            }
+        }
+    }
+
+    public TaskStats toStats(LocalDateTime now) {
+        long seconds = now.toEpochSecond(ZoneOffset.UTC);
+        long minute = Math.floorDiv(seconds, 60);
+        long boundary = Math.floorMod(seconds, 60) != 0 || now.getNano() != 0 ? minute + 1 : minute;
+        return new TaskStats(counts.clone(), scheduledMinutes, pendingEnds.countBefore(boundary));
+    }
+
+    private static boolean isTimed(Task task) {
+        return !(task instanceof EpicTask) && task.hasStartTime() && task.getDurationMinutes() != Task.NO_DURATION;
+    }
+
+    private static long endMinute(Task task) {
+        return task.getStartEpochMinute() + task.getDurationMinutes();
+    }
+
+    private static int slot(Task task) {
+        TaskType type;
+        if (task instanceof EpicTask) {
+            type = TaskType.EPIC;
+        } else if (task instanceof SubTask) {
+            type = TaskType.SUBTASK;
+        } else {
+            type = TaskType.TASK;
+        }
+        return type.ordinal() * STATUS_COUNT + task.getStatus().ordinal();
+    }
+
+    /**
+     * AVL-дерево сроков с кратностями и суммой кратностей в каждом поддереве.
+     */
+    private static class EndCounts {
+        private Node root;
+
+        private void add(long end) {
+            root = add(root, end);
+        }
+
+        private void remove(long end) {
+            root = remove(root, end);
+        }
+
+        private int countBefore(long boundary) {
+            int result = 0;
+            Node node = root;
+            while (node != null) {
+                if (node.end < boundary) {
+                    result += total(node.left) + node.count;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return result;
+        }
+
+        private static Node add(Node node, long end) {
+            if (node == null) {
+                return new Node(end);
+            }
+            if (end < node.end) {
+                node.left = add(node.left, end);
+            } else if (end > node.end) {
+                node.right = add(node.right, end);
+            } else {
+                node.count++;
+            }
+            return balance(node);
+        }
+
+        private static Node remove(Node node, long end) {
+            if (node == null) {
+                return null;
+            }
+            if (end < node.end) {
+                node.left = remove(node.left, end);
+            } else if (end > node.end) {
+                node.right = remove(node.right, end);
+            } else if (node.count > 1) {
+                node.count--;
+            } else {
+                if (node.left == null) {
+                    return node.right;
+                }
+                if (node.right == null) {
+                    return node.left;
+                }
+                Node successor = node.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                successor.right = removeMin(node.right);
+                successor.left = node.left;
+                return balance(successor);
+            }
+            return balance(node);
+        }
+
+        private static Node removeMin(Node node) {
+            if (node.left == null) {
+                return node.right;
+            }
+            node.left = removeMin(node.left);
+            return balance(node);
+        }
+
+        private static Node balance(Node node) {
+            update(node);
+            int factor = height(node.left) - height(node.right);
+            if (factor > 1) {
+                if (height(node.left.left) < height(node.left.right)) {
+                    node.left = rotateLeft(node.left);
+                }
+                return rotateRight(node);
+            }
+            if (factor < -1) {
+                if (height(node.right.right) < height(node.right.left)) {
+                    node.right = rotateRight(node.right);
+                }
+                return rotateLeft(node);
+            }
+            return node;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static void update(Node node) {
+            node.height = 1 + Math.max(height(node.left), height(node.right));
+            node.total = total(node.left) + node.count + total(node.right);
+        }
+
+        private static int height(Node node) {
+            return node == null ? 0 : node.height;
+        }
+
+        private static int total(Node node) {
+            return node == null ? 0 : node.total;
+        }
+
+        private static class Node {
+            private final long end;
+            private int count = 1;
+            private int total = 1;
+            private int height = 1;
+            private Node left;
+            private Node right;
+
+            private Node(long end) {
+                this.end = end;
+            }
+        }
+    }
+}
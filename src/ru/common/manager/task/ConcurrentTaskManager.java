@@ -0,0 +1,267 @@
+package ru.common.manager.task;
+
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Потокобезопасная обёртка над {@link TaskManager}: списки читаются параллельно под read-lock,
+ * любые изменения (включая проверку пересечений и вставку) выполняются атомарно под write-lock.
+ * Получение задачи по id пишет в историю просмотров, поэтому тоже берёт write-lock.
+ */
+public class ConcurrentTaskManager implements TaskManager {
+    private final TaskManager delegate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ConcurrentTaskManager(TaskManager delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "Менеджер не может быть null");
+    }
+
+    @Override
+    public EpicTask createEpic(EpicTask epic) {
+        return write(() -> delegate.createEpic(epic));
+    }
+
+    @Override
+    public List<EpicTask> getAllEpics() {
+        return read(delegate::getAllEpics);
+    }
+
+    @Override
+    public List<EpicTask> getEpicsPage(int afterId, int limit) {
+        return read(() -> delegate.getEpicsPage(afterId, limit));
+    }
+
+    @Override
+    public Stream<EpicTask> streamEpics() {
+        return read(delegate::streamEpics);
+    }
+
+    @Override
+    public void removeAllEpics() {
+        write(delegate::removeAllEpics);
+    }
+
+    @Override
+    public EpicTask getEpicById(int id) {
+        return write(() -> delegate.getEpicById(id));
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic) {
+        return write(() -> delegate.updateEpic(epic));
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic, long expectedVersion) {
+        return write(() -> delegate.updateEpic(epic, expectedVersion));
+    }
+
+    @Override
+    public boolean removeEpic(EpicTask epic) {
+        return write(() -> delegate.removeEpic(epic));
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        return write(() -> delegate.createTask(task));
+    }
+
+    @Override
+    public List<Task> createTasks(Collection<? extends Task> tasks) {
+        return write(() -> delegate.createTasks(tasks));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return read(delegate::getAllTasks);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return read(() -> delegate.getTasksPage(afterId, limit));
+    }
+
+    @Override
+    public Stream<Task> streamTasks() {
+        return read(delegate::streamTasks);
+    }
+
+    @Override
+    public void removeAllTasks() {
+        write(delegate::removeAllTasks);
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return write(() -> delegate.getTaskById(id));
+    }
+
+    @Override
+    public SubTask getSubTaskById(int id) {
+        return write(() -> delegate.getSubTaskById(id));
+    }
+
+    @Override
+    public boolean updateTask(Task task) {
+        return write(() -> delegate.updateTask(task));
+    }
+
+    @Override
+    public boolean updateTask(Task task, long expectedVersion) {
+        return write(() -> delegate.updateTask(task, expectedVersion));
+    }
+
+    @Override
+    public boolean removeTask(Task task) {
+        return write(() -> delegate.removeTask(task));
+    }
+
+    @Override
+    public SubTask createSubTask(SubTask subTask) {
+        return write(() -> delegate.createSubTask(subTask));
+    }
+
+    @Override
+    public List<SubTask> createSubTasks(Collection<? extends SubTask> subTasks) {
+        return write(() -> delegate.createSubTasks(subTasks));
+    }
+
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        return read(delegate::getAllSubTasks);
+    }
+
+    @Override
+    public List<SubTask> getSubTasksPage(int afterId, int limit) {
+        return read(() -> delegate.getSubTasksPage(afterId, limit));
+    }
+
+    @Override
+    public Stream<SubTask> streamSubTasks() {
+        return read(delegate::streamSubTasks);
+    }
+
+    @Override
+    public void removeAllSubTasks() {
+        write(delegate::removeAllSubTasks);
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask) {
+        return write(() -> delegate.updateSubTask(subTask));
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask, long expectedVersion) {
+        return write(() -> delegate.updateSubTask(subTask, expectedVersion));
+    }
+
+    @Override
+    public boolean removeSubTask(int subTaskId) {
+        return write(() -> delegate.removeSubTask(subTaskId));
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByEpicId(int epicId) {
+        return read(() -> delegate.getSubTasksByEpicId(epicId));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(delegate::getHistory);
+    }
+
+    @Override
+    public String getHistoryAsString() {
+        return read(delegate::getHistoryAsString);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(delegate::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return read(() -> delegate.getPrioritizedTasks(from, to));
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return read(() -> delegate.getTasksByStatus(status));
+    }
+
+    @Override
+    public List<Integer> search(String query, int limit) {
+        return read(() -> delegate.search(query, limit));
+    }
+
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        return read(() -> delegate.autocomplete(prefix, limit));
+    }
+
+    @Override
+    public LocalDateTime findNextFreeSlot(LocalDateTime after, Duration duration) {
+        return read(() -> delegate.findNextFreeSlot(after, duration));
+    }
+
+    @Override
+    public List<TaskConflict> findTimeConflicts() {
+        return read(delegate::findTimeConflicts);
+    }
+
+    @Override
+    public TaskStats getStats(LocalDateTime now) {
+        return read(() -> delegate.getStats(now));
+    }
+
+    @Override
+    public TaskEventSubscription subscribe() {
+        return read(delegate::subscribe);
+    }
+
+    @Override
+    public TaskManager snapshot() {
+        return read(delegate::snapshot);
+    }
+
+    private <T> T read(Supplier<T> action) {
+        return withLock(lock.readLock(), action);
+    }
+
+    private <T> T write(Supplier<T> action) {
+        return withLock(lock.writeLock(), action);
+    }
+
+    private void write(Runnable action) {
+        withLock(lock.writeLock(), () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static <T> T withLock(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
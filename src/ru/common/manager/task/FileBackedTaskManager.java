@@ -8,10 +8,14 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
+    private static final String ID_HIGH_WATER_PREFIX = "ID_HIGH_WATER:";
     private final File file;
+    private int batchDepth;
+    private boolean saveDeferred;
 
     public FileBackedTaskManager(File file) {
         super();
@@ -20,16 +24,28 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     public void save() {
+        if (batchDepth > 0) {
+            saveDeferred = true;
+            return;
+        }
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
             writer.write("id,type,name,status,description,epic,startTime,duration\n");
+            int maxStoredId = 0;
             for (EpicTask epic : getAllEpics()) {
                 writer.write(epic.toCSVString() + "\n");
+                maxStoredId = Math.max(maxStoredId, epic.getId());
             }
             for (Task task : getAllTasks()) {
                 writer.write(task.toCSVString() + "\n");
+                maxStoredId = Math.max(maxStoredId, task.getId());
             }
             for (SubTask subtask : getAllSubTasks()) {
                 writer.write(subtask.toCSVString() + "\n");
+                maxStoredId = Math.max(maxStoredId, subtask.getId());
+            }
+            int highWaterMark = getIdAllocator().getHighWaterMark();
+            if (highWaterMark > maxStoredId) {
+                writer.write(ID_HIGH_WATER_PREFIX + highWaterMark + "\n");
             }
             List<Task> history = getHistory();
             if (!history.isEmpty()) {
@@ -43,6 +59,21 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         }
     }
 
+    /**
+     * Выполняет серию изменений с одной записью файла в конце вместо записи после каждого изменения.
+     */
+    public void runBatch(Runnable batch) {
+        batchDepth++;
+        try {
+            batch.run();
+        } finally {
+            if (--batchDepth == 0 && saveDeferred) {
+                saveDeferred = false;
+                save();
+            }
+        }
+    }
+
     private void loadFromFile(File file) {
         if (!file.exists()) {
             try {
@@ -69,6 +100,14 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
                     continue;
                 }
                 System.out.println("Текущая строка: " + line);
+                if (line.startsWith(ID_HIGH_WATER_PREFIX)) {
+                    try {
+                        getIdAllocator().reserve(Integer.parseInt(line.substring(ID_HIGH_WATER_PREFIX.length()).trim()));
+                    } catch (NumberFormatException e) {
+                        System.err.println("Некорректный максимальный id: " + line);
+                    }
+                    continue;
+                }
                 if (line.contains("HISTORY:")) {
                     while ((line = reader.readLine()) != null && !line.trim().isEmpty()) {
                         try {
@@ -105,6 +144,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
                 }
             }
             restoreHistory(historyIds);
+            clearUndoHistory();
         } catch (IOException e) {
             throw new ManagerSaveException("Не удалось прочитать данные из файла", e);
         }
@@ -201,6 +241,13 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         return result;
     }
 
+    @Override
+    public List<Task> createTasks(Collection<? extends Task> tasks) {
+        List<Task> result = super.createTasks(tasks);
+        save();
+        return result;
+    }
+
     @Override
     public Task getTaskById(int id) {
         Task result = super.getTaskById(id);
@@ -251,6 +298,13 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         }
     }
 
+    @Override
+    public List<SubTask> createSubTasks(Collection<? extends SubTask> subTasks) {
+        List<SubTask> result = super.createSubTasks(subTasks);
+        save();
+        return result;
+    }
+
     @Override
     public SubTask getSubTaskById(int id) {
         try {
@@ -351,4 +405,22 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
             throw new ManagerSaveException(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean undo() {
+        boolean result = super.undo();
+        if (result) {
+            save();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean redo() {
+        boolean result = super.redo();
+        if (result) {
+            save();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package ru.common.manager.task;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Неблокирующий генератор идентификаторов. Хранит максимальный выданный id (high-water mark);
+ * пакетное создание арендует диапазон {@link IdBlock} одним обращением к счётчику и раздаёт id из него.
+ */
+public class IdAllocator {
+    private final AtomicInteger highWaterMark;
+
+    public IdAllocator() {
+        this(0);
+    }
+
+    public IdAllocator(int highWaterMark) {
+        this.highWaterMark = new AtomicInteger(highWaterMark);
+    }
+
+    public int nextId() {
+        return highWaterMark.incrementAndGet();
+    }
+
+    public IdBlock leaseBlock(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + size);
+        }
+        int last = highWaterMark.addAndGet(size);
+        return new IdBlock(last - size + 1, last);
+    }
+
+    public void reserve(int id) {
+        highWaterMark.accumulateAndGet(id, Math::max);
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    public static class IdBlock {
+        private final int last;
+        private int next;
+
+        private IdBlock(int first, int last) {
+            this.next = first;
+            this.last = last;
+        }
+
+        public boolean hasNext() {
+            return next <= last;
+        }
+
+        public int nextId() {
+            if (!hasNext()) {
+                throw new IllegalStateException("Блок идентификаторов исчерпан");
+            }
+            return next++;
+        }
+
+        public int remaining() {
+            return last - next + 1;
+        }
+    }
+}
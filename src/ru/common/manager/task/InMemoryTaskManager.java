@@ -1,59 +1,137 @@
 package ru.common.manager.task;
 
 import ru.common.manager.exceptions.NotFoundException;
+import ru.common.manager.exceptions.VersionConflictException;
+import ru.common.manager.event.TaskEventRing;
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.manager.event.TaskEventType;
 import ru.common.manager.history.HistoryManager;
 import ru.common.model.task.EpicTask;
 import ru.common.model.task.SubTask;
 import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
 import ru.common.model.task.TaskStatus;
+import ru.common.model.task.TaskType;
+import ru.common.util.collections.IntHashSet;
+import ru.common.util.collections.IntObjectMap;
+import ru.common.util.collections.PersistentIntMap;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 public class InMemoryTaskManager implements TaskManager {
-    private static int nextId = 1;
-    private final Map<Integer, EpicTask> epics = new HashMap<>();
-    private final Map<Integer, Task> tasks = new HashMap<>();
-    private final Map<Integer, SubTask> subTasks = new HashMap<>();
+    private static final int EVENT_BUFFER_SIZE = 1024;
+    private static final long DEFAULT_UNDO_BUDGET_BYTES = 16L * 1024 * 1024;
+    private final IdAllocator idAllocator;
+    private final IntObjectMap<EpicTask> epics = new IntObjectMap<>();
+    private final IntObjectMap<Task> tasks = new IntObjectMap<>();
+    private final IntObjectMap<SubTask> subTasks = new IntObjectMap<>();
     protected final HistoryManager historyManager = Managers.getDefaultHistory();
-    private final TreeSet<Task> prioritizedTasks = new TreeSet<>((task1, task2) -> {
-        LocalDateTime startTime1 = task1.getStartTime();
-        LocalDateTime startTime2 = task2.getStartTime();
-        if (startTime1 != null && startTime2 != null) {
-            int timeComparison = startTime1.compareTo(startTime2);
-            return timeComparison != 0 ? timeComparison : Integer.compare(task1.getId(), task2.getId());
+    private final TimeIntervalIndex scheduleIndex = new TimeIntervalIndex();
+    private final StatusIndex statusIndex = new StatusIndex();
+    private final TextIndex textIndex = new TextIndex();
+    private final NameIndex nameIndex = new NameIndex();
+    private final BoardStats boardStats = new BoardStats();
+    private PersistentIntMap<EpicTask> publishedEpics = PersistentIntMap.empty();
+    private PersistentIntMap<Task> publishedTasks = PersistentIntMap.empty();
+    private PersistentIntMap<SubTask> publishedSubTasks = PersistentIntMap.empty();
+    private long version;
+    private final TaskEventRing events = new TaskEventRing(EVENT_BUFFER_SIZE);
+    private final UndoLog undoLog;
+    private volatile List<EpicTask> epicsView;
+    private volatile List<Task> tasksView;
+    private volatile List<SubTask> subTasksView;
+    private volatile List<Task> prioritizedView;
+
+    public InMemoryTaskManager() {
+        this(new IdAllocator());
+    }
+
+    public InMemoryTaskManager(IdAllocator idAllocator) {
+        this(idAllocator, DEFAULT_UNDO_BUDGET_BYTES);
+    }
+
+    public InMemoryTaskManager(IdAllocator idAllocator, long undoBudgetBytes) {
+        this.idAllocator = Objects.requireNonNull(idAllocator, "Генератор id не может быть null");
+        this.undoLog = new UndoLog(undoBudgetBytes);
+    }
+
+    public IdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+
+    private void assignId(Task task) {
+        int id = task.getId();
+        Task existing = findStored(id);
+        if (id <= 0 || (existing != null && existing != task)) {
+            task.setId(idAllocator.nextId());
+        } else {
+            idAllocator.reserve(id);
         }
-        return Integer.compare(task1.getId(), task2.getId());
-    });
+    }
 
-    public static int getNextId() {
-        return nextId++;
+    private Task findStored(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        if (task == null) {
+            task = subTasks.get(id);
+        }
+        return task;
     }
 
     @Override
     public EpicTask createEpic(EpicTask epic) {
+        undoLog.startChange();
         Objects.requireNonNull(epic, "Эпик не может быть null");
+        assignId(epic);
         epics.put(epic.getId(), epic);
+        epicsView = null;
         updateEpicTimeFields(epic);
+        index(epic);
         return epic;
     }
 
     @Override
     public List<EpicTask> getAllEpics() {
-        return new ArrayList<>(epics.values());
+        List<EpicTask> view = epicsView;
+        if (view == null) {
+            view = snapshotById(publishedEpics, epics);
+            epicsView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public List<EpicTask> getEpicsPage(int afterId, int limit) {
+        return pageAfter(publishedEpics, epics, afterId, limit);
+    }
+
+    @Override
+    public Stream<EpicTask> streamEpics() {
+        return publishedEpics.stream();
     }
 
     @Override
     public void removeAllEpics() {
-        new ArrayList<>(subTasks.values()).forEach(subTask ->
-                historyManager.removeById(subTask.getId())
-        );
-        new ArrayList<>(epics.values()).forEach(epic ->
-                historyManager.removeById(epic.getId())
-        );
+        undoLog.startChange();
+        new ArrayList<>(subTasks.values()).forEach(subTask -> {
+            historyManager.removeById(subTask.getId());
+            removeFromPrioritizedTasks(subTask);
+            unindex(subTask.getId());
+        });
+        new ArrayList<>(epics.values()).forEach(epic -> {
+            historyManager.removeById(epic.getId());
+            unindex(epic.getId());
+        });
         subTasks.clear();
+        subTasksView = null;
         epics.clear();
+        epicsView = null;
     }
 
     @Override
@@ -67,35 +145,56 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public boolean updateEpic(EpicTask epic) {
+        undoLog.startChange();
         Objects.requireNonNull(epic, "Эпик не может быть null");
-        if (!epics.containsKey(epic.getId())) return false;
+        EpicTask storedEpic = epics.get(epic.getId());
+        if (storedEpic == null) return false;
+        if (storedEpic != epic) {
+            epic.inheritSubTasks(storedEpic);
+        }
         epics.put(epic.getId(), epic);
+        epicsView = null;
         updateEpicTimeFields(epic);
+        index(epic);
         return true;
     }
 
+    @Override
+    public boolean updateEpic(EpicTask epic, long expectedVersion) {
+        Objects.requireNonNull(epic, "Эпик не может быть null");
+        EpicTask storedEpic = epics.get(epic.getId());
+        if (storedEpic == null) return false;
+        checkVersion(storedEpic, expectedVersion);
+        return updateEpic(epic);
+    }
+
     @Override
     public boolean removeEpic(EpicTask epic) {
+        undoLog.startChange();
         if (epic == null || !epics.containsKey(epic.getId()))
             throw new NotFoundException("Epic with id " + (epic != null ? epic.getId() : null) + " not found");
         EpicTask storedEpic = epics.get(epic.getId());
         storedEpic.getSubTaskIds().stream()
                 .map(subTasks::get)
                 .filter(Objects::nonNull)
-                .forEach(this::removeTask);
+                .forEach(this::removeStoredTask);
         boolean removed = epics.remove(epic.getId()) != null;
+        epicsView = null;
         if (removed) {
             historyManager.removeById(epic.getId());
+            unindex(epic.getId());
         }
         return removed;
     }
 
     @Override
     public Task createTask(Task task) {
+        undoLog.startChange();
         Objects.requireNonNull(task, "Задача не может быть null");
         if (task instanceof SubTask) {
             throw new IllegalArgumentException("Для подзадач используйте createSubTask");
         }
+        assignId(task);
         Task conflictingTask = findConflictingTask(task);
         if (conflictingTask != null) {
             throw new IllegalArgumentException(String.format(
@@ -105,24 +204,67 @@ public class InMemoryTaskManager implements TaskManager {
             ));
         }
         tasks.put(task.getId(), task);
+        tasksView = null;
+        index(task);
         addToPrioritizedTasks(task);
         return task;
     }
 
+    @Override
+    public List<Task> createTasks(Collection<? extends Task> batch) {
+        undoLog.startChange();
+        Objects.requireNonNull(batch, "Список задач не может быть null");
+        for (Task task : batch) {
+            Objects.requireNonNull(task, "Задача не может быть null");
+            if (task instanceof SubTask) {
+                throw new IllegalArgumentException("Для подзадач используйте createSubTasks");
+            }
+        }
+        assignIds(batch);
+        checkBatchConflicts(batch);
+        List<Task> created = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            tasks.put(task.getId(), task);
+            index(task);
+            addToPrioritizedTasks(task);
+            created.add(task);
+        }
+        tasksView = null;
+        return created;
+    }
+
     @Override
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks.values());
+        List<Task> view = tasksView;
+        if (view == null) {
+            view = snapshotById(publishedTasks, tasks);
+            tasksView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return pageAfter(publishedTasks, tasks, afterId, limit);
+    }
+
+    @Override
+    public Stream<Task> streamTasks() {
+        return publishedTasks.stream();
     }
 
     @Override
     public void removeAllTasks() {
+        undoLog.startChange();
         new ArrayList<>(tasks.values()).stream()
                 .filter(task -> !(task instanceof SubTask))
                 .forEach(task -> {
                     historyManager.removeById(task.getId());
                     removeFromPrioritizedTasks(task);
+                    unindex(task.getId());
                 });
         tasks.clear();
+        tasksView = null;
     }
 
     @Override
@@ -136,46 +278,63 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public boolean updateTask(Task task) {
+        undoLog.startChange();
         Objects.requireNonNull(task, "Задача не может быть null");
         if (task instanceof SubTask) {
             SubTask subTask = (SubTask) task;
-            if (!subTasks.containsKey(subTask.getId())) return false;
-            removeFromPrioritizedTasks(subTask);
+            SubTask storedSubTask = subTasks.get(subTask.getId());
+            if (storedSubTask == null) return false;
+            requireParentId(subTask);
             Task conflictingTask = findConflictingTask(subTask);
             if (conflictingTask != null) {
-                addToPrioritizedTasks(subTask);
                 throw new IllegalArgumentException(String.format(
                         "Подзадача '%s' (ID: %d, время: %s) пересекается по времени с задачей '%s' (ID: %d, время: %s)",
                         subTask.getName(), subTask.getId(), subTask.getStartTime(),
                         conflictingTask.getName(), conflictingTask.getId(), conflictingTask.getStartTime()
                 ));
             }
+            removeFromPrioritizedTasks(storedSubTask);
             subTasks.put(subTask.getId(), subTask);
-            updateInPrioritizedTasks(subTask);
-            EpicTask epicTask = epics.get(subTask.getParentId());
-            if (epicTask != null) {
-                updateEpicStatus(epicTask);
-            }
+            subTasksView = null;
+            index(subTask);
+            addToPrioritizedTasks(subTask);
+            relinkSubTask(storedSubTask, subTask);
             return true;
         }
-        if (!tasks.containsKey(task.getId())) return false;
-        removeFromPrioritizedTasks(task);
+        Task storedTask = tasks.get(task.getId());
+        if (storedTask == null) return false;
         Task conflictingTask = findConflictingTask(task);
         if (conflictingTask != null) {
-            addToPrioritizedTasks(task);
             throw new IllegalArgumentException(String.format(
                     "Задача '%s' (ID: %d, время: %s) пересекается по времени с задачей '%s' (ID: %d, время: %s)",
                     task.getName(), task.getId(), task.getStartTime(),
                     conflictingTask.getName(), conflictingTask.getId(), conflictingTask.getStartTime()
             ));
         }
+        removeFromPrioritizedTasks(storedTask);
         tasks.put(task.getId(), task);
-        updateInPrioritizedTasks(task);
+        tasksView = null;
+        index(task);
+        addToPrioritizedTasks(task);
         return true;
     }
 
+    @Override
+    public boolean updateTask(Task task, long expectedVersion) {
+        Objects.requireNonNull(task, "Задача не может быть null");
+        Task storedTask = task instanceof SubTask ? subTasks.get(task.getId()) : tasks.get(task.getId());
+        if (storedTask == null) return false;
+        checkVersion(storedTask, expectedVersion);
+        return updateTask(task);
+    }
+
     @Override
     public boolean removeTask(Task task) {
+        undoLog.startChange();
+        return removeStoredTask(task);
+    }
+
+    private boolean removeStoredTask(Task task) {
         if (task == null) throw new NotFoundException("Task is null");
         boolean removed;
         if (task instanceof SubTask subTask) {
@@ -183,9 +342,10 @@ public class InMemoryTaskManager implements TaskManager {
                 throw new NotFoundException("SubTask with id " + subTask.getId() + " not found");
             }
             removed = subTasks.remove(subTask.getId()) != null;
+            subTasksView = null;
             if (removed) {
                 removeFromPrioritizedTasks(subTask);
-                EpicTask epicTask = epics.get(subTask.getParentId());
+                EpicTask epicTask = parentOf(subTask);
                 if (epicTask != null) {
                     epicTask.removeSubTaskId(subTask.getId());
                     updateEpicStatus(epicTask);
@@ -196,38 +356,37 @@ public class InMemoryTaskManager implements TaskManager {
                 throw new NotFoundException("Task with id " + task.getId() + " not found");
             }
             removed = tasks.remove(task.getId()) != null;
+            tasksView = null;
             if (removed) {
                 removeFromPrioritizedTasks(task);
             }
         }
         if (removed) {
             historyManager.removeById(task.getId());
+            unindex(task.getId());
         }
         return removed;
     }
 
     private void updateEpicStatus(EpicTask epic) {
-        epic.setStatus(calculateEpicStatus(epic));
+        epic.setStatus(epic.calculateStatus());
         updateEpicTimeFields(epic);
+        statusIndex.put(epic);
+        publish(epic);
     }
 
     private void updateEpicTimeFields(EpicTask epic) {
-        List<SubTask> epicSubTasks = getSubTasksByEpicId(epic.getId());
-        LocalDateTime startTime = epic.calculateStartTime(epicSubTasks);
-        epic.setCalculatedStartTime(startTime);
-        Duration duration = epic.calculateDuration(epicSubTasks);
-        epic.setCalculatedDuration(duration);
-        LocalDateTime endTime = epic.calculateEndTime(epicSubTasks);
-        epic.setCalculatedEndTime(endTime);
+        epic.setCalculatedStartTime(epic.calculateStartTime());
+        epic.setCalculatedDuration(epic.calculateDuration());
+        epic.setCalculatedEndTime(epic.calculateEndTime());
     }
 
     @Override
     public SubTask createSubTask(SubTask subTask) {
+        undoLog.startChange();
         Objects.requireNonNull(subTask, "Подзадача не может быть null");
-        EpicTask parentTask = epics.get(subTask.getParentId());
-        if (parentTask == null) {
-            throw new IllegalArgumentException("Родительская задача не найдена");
-        }
+        EpicTask parentTask = requireParent(subTask);
+        assignId(subTask);
         Task conflictingTask = findConflictingTask(subTask);
         if (conflictingTask != null) {
             throw new IllegalArgumentException(String.format(
@@ -237,19 +396,63 @@ public class InMemoryTaskManager implements TaskManager {
             ));
         }
         subTasks.put(subTask.getId(), subTask);
+        subTasksView = null;
+        index(subTask);
         addToPrioritizedTasks(subTask);
-        parentTask.addSubTaskId(subTask.getId());
+        parentTask.trackSubTask(subTask);
         updateEpicStatus(parentTask);
         return subTask;
     }
 
+    @Override
+    public List<SubTask> createSubTasks(Collection<? extends SubTask> batch) {
+        undoLog.startChange();
+        Objects.requireNonNull(batch, "Список подзадач не может быть null");
+        for (SubTask subTask : batch) {
+            Objects.requireNonNull(subTask, "Подзадача не может быть null");
+            requireParent(subTask);
+        }
+        assignIds(batch);
+        checkBatchConflicts(batch);
+        List<SubTask> created = new ArrayList<>(batch.size());
+        IntObjectMap<EpicTask> affectedEpics = new IntObjectMap<>();
+        for (SubTask subTask : batch) {
+            EpicTask parentTask = parentOf(subTask);
+            subTasks.put(subTask.getId(), subTask);
+            index(subTask);
+            addToPrioritizedTasks(subTask);
+            parentTask.trackSubTask(subTask);
+            affectedEpics.put(parentTask.getId(), parentTask);
+            created.add(subTask);
+        }
+        subTasksView = null;
+        affectedEpics.values().forEach(this::updateEpicStatus);
+        return created;
+    }
+
     @Override
     public List<SubTask> getAllSubTasks() {
-        return new ArrayList<>(subTasks.values());
+        List<SubTask> view = subTasksView;
+        if (view == null) {
+            view = snapshotById(publishedSubTasks, subTasks);
+            subTasksView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public List<SubTask> getSubTasksPage(int afterId, int limit) {
+        return pageAfter(publishedSubTasks, subTasks, afterId, limit);
+    }
+
+    @Override
+    public Stream<SubTask> streamSubTasks() {
+        return publishedSubTasks.stream();
     }
 
     @Override
     public void removeAllSubTasks() {
+        undoLog.startChange();
         epics.values().forEach(epic -> {
             epic.clearSubTaskIds();
             updateEpicStatus(epic);
@@ -257,16 +460,64 @@ public class InMemoryTaskManager implements TaskManager {
         new ArrayList<>(subTasks.values()).forEach(subTask -> {
             historyManager.removeById(subTask.getId());
             removeFromPrioritizedTasks(subTask);
+            unindex(subTask.getId());
         });
         subTasks.clear();
-        tasks.entrySet().removeIf(entry -> entry.getValue() instanceof SubTask);
+        subTasksView = null;
     }
 
     @Override
     public List<SubTask> getSubTasksByEpicId(int epicId) {
-        return subTasks.values().stream()
-                .filter(subTask -> subTask.getParentId() == epicId)
-                .toList();
+        EpicTask epic = epics.get(epicId);
+        if (epic == null) {
+            return List.of();
+        }
+        return getSubTasksOf(epic);
+    }
+
+    private List<SubTask> getSubTasksOf(EpicTask epic) {
+        List<SubTask> result = new ArrayList<>();
+        epic.forEachSubTaskId(subTaskId -> {
+            SubTask subTask = subTasks.get(subTaskId);
+            if (subTask != null && Objects.equals(subTask.getParentId(), epic.getId())) {
+                result.add(subTask);
+            }
+        });
+        return result;
+    }
+
+    private EpicTask parentOf(SubTask subTask) {
+        Integer parentId = subTask.getParentId();
+        return parentId != null ? epics.get(parentId) : null;
+    }
+
+    private EpicTask requireParent(SubTask subTask) {
+        EpicTask parent = parentOf(subTask);
+        if (parent == null) {
+            throw new IllegalArgumentException("Родительская задача не найдена");
+        }
+        return parent;
+    }
+
+    private static void requireParentId(SubTask subTask) {
+        if (subTask.getParentId() == null) {
+            throw new IllegalArgumentException("Родительская задача не найдена");
+        }
+    }
+
+    private void relinkSubTask(SubTask previous, SubTask current) {
+        if (!Objects.equals(previous.getParentId(), current.getParentId())) {
+            EpicTask previousEpic = parentOf(previous);
+            if (previousEpic != null) {
+                previousEpic.removeSubTaskId(current.getId());
+                updateEpicStatus(previousEpic);
+            }
+        }
+        EpicTask parentEpic = parentOf(current);
+        if (parentEpic != null) {
+            parentEpic.trackSubTask(current);
+            updateEpicStatus(parentEpic);
+        }
     }
 
     @Override
@@ -280,43 +531,54 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public boolean updateSubTask(SubTask subTask) {
+        undoLog.startChange();
         Objects.requireNonNull(subTask, "Подзадача не может быть null");
-        if (!subTasks.containsKey(subTask.getId())) return false;
-        removeFromPrioritizedTasks(subTask);
+        SubTask storedSubTask = subTasks.get(subTask.getId());
+        if (storedSubTask == null) return false;
+        requireParentId(subTask);
         Task conflictingTask = findConflictingTask(subTask);
         if (conflictingTask != null) {
-            addToPrioritizedTasks(subTask);
             throw new IllegalArgumentException(String.format(
                     "Подзадача '%s' (ID: %d, время: %s) пересекается по времени с задачей '%s' (ID: %d, время: %s)",
                     subTask.getName(), subTask.getId(), subTask.getStartTime(),
                     conflictingTask.getName(), conflictingTask.getId(), conflictingTask.getStartTime()
             ));
         }
+        removeFromPrioritizedTasks(storedSubTask);
         subTasks.put(subTask.getId(), subTask);
+        subTasksView = null;
+        index(subTask);
         addToPrioritizedTasks(subTask);
-        EpicTask parentEpic = epics.get(subTask.getParentId());
-        if (parentEpic != null) {
-            updateEpicStatus(parentEpic);
-            updateEpicTimeFields(parentEpic);
-        }
+        relinkSubTask(storedSubTask, subTask);
         return true;
     }
 
+    @Override
+    public boolean updateSubTask(SubTask subTask, long expectedVersion) {
+        Objects.requireNonNull(subTask, "Подзадача не может быть null");
+        SubTask storedSubTask = subTasks.get(subTask.getId());
+        if (storedSubTask == null) return false;
+        checkVersion(storedSubTask, expectedVersion);
+        return updateSubTask(subTask);
+    }
+
     @Override
     public boolean removeSubTask(int subTaskId) {
+        undoLog.startChange();
         if (!subTasks.containsKey(subTaskId))
             throw new NotFoundException("SubTask with id " + subTaskId + " not found");
         SubTask subTask = subTasks.get(subTaskId);
         historyManager.removeById(subTaskId);
         removeFromPrioritizedTasks(subTask);
-        EpicTask parentEpic = epics.get(subTask.getParentId());
+        unindex(subTaskId);
+        EpicTask parentEpic = parentOf(subTask);
         if (parentEpic != null) {
             parentEpic.removeSubTaskId(subTaskId);
         }
         subTasks.remove(subTaskId);
+        subTasksView = null;
         if (parentEpic != null) {
             updateEpicStatus(parentEpic);
-            updateEpicTimeFields(parentEpic);
         }
         return true;
     }
@@ -333,73 +595,386 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTasks);
+        List<Task> view = prioritizedView;
+        if (view == null) {
+            view = Collections.unmodifiableList(scheduleIndex.tasks());
+            prioritizedView = view;
+        }
+        return view;
     }
 
-    private boolean hasTimeOverlap(Task task1, Task task2) {
-        LocalDateTime start1 = task1.getStartTime();
-        LocalDateTime start2 = task2.getStartTime();
-        Duration duration1 = task1.getDuration();
-        Duration duration2 = task2.getDuration();
-        if (start1 == null || start2 == null || duration1 == null || duration2 == null) {
-            return false;
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return findInRange(scheduleIndex, from, to);
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        Objects.requireNonNull(status, "Статус не может быть null");
+        int[] ids = statusIndex.idsWith(status);
+        List<Task> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Task task = findStored(id);
+            if (task != null) {
+                result.add(task);
+            }
         }
-        if (task1.getId() == task2.getId()) {
+        return result;
+    }
+
+    @Override
+    public List<Integer> search(String query, int limit) {
+        checkLimit(limit);
+        return textIndex.search(query, limit);
+    }
+
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        checkLimit(limit);
+        return nameIndex.complete(prefix, limit);
+    }
+
+    @Override
+    public LocalDateTime findNextFreeSlot(LocalDateTime after, Duration duration) {
+        return findFreeSlot(scheduleIndex, after, duration);
+    }
+
+    @Override
+    public List<TaskConflict> findTimeConflicts() {
+        return sweepConflicts(scheduleIndex.tasks());
+    }
+
+    @Override
+    public TaskStats getStats(LocalDateTime now) {
+        return boardStats.toStats(Objects.requireNonNull(now, "Момент времени не может быть null"));
+    }
+
+    @Override
+    public TaskEventSubscription subscribe() {
+        return events.subscribe();
+    }
+
+    public boolean undo() {
+        UndoLog.Change change = undoLog.takeUndo();
+        if (change == null) {
             return false;
         }
-        if (duration1.isZero() || duration2.isZero()) {
+        replay(change, true);
+        undoLog.undone(change);
+        return true;
+    }
+
+    public boolean redo() {
+        UndoLog.Change change = undoLog.takeRedo();
+        if (change == null) {
             return false;
         }
-        LocalDateTime end1 = start1.plus(duration1);
-        LocalDateTime end2 = start2.plus(duration2);
-        return start1.isBefore(end2) && end1.isAfter(start2);
+        replay(change, false);
+        undoLog.redone(change);
+        return true;
     }
 
-    private Task findConflictingTask(Task newTask) {
-        LocalDateTime newStart = newTask.getStartTime();
-        Duration newDuration = newTask.getDuration();
-        if (newStart == null || newDuration == null) {
-            return null;
+    public boolean canUndo() {
+        return undoLog.canUndo();
+    }
+
+    public boolean canRedo() {
+        return undoLog.canRedo();
+    }
+
+    public void clearUndoHistory() {
+        undoLog.clear();
+    }
+
+    @Override
+    public TaskSnapshot snapshot() {
+        List<Task> history = new ArrayList<>();
+        for (Task viewed : historyManager.getHistory()) {
+            Task copy = findPublished(viewed.getId());
+            if (copy != null) {
+                history.add(copy);
+            }
         }
-        return prioritizedTasks.stream()
-                .filter(existingTask -> hasTimeOverlap(newTask, existingTask))
-                .findFirst()
-                .orElse(null);
+        return new TaskSnapshot(version, publishedEpics, publishedTasks, publishedSubTasks, history);
     }
 
-    private void addToPrioritizedTasks(Task task) {
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
+    static List<Task> findInRange(TimeIntervalIndex index, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime rangeStart = from != null ? from : LocalDateTime.MIN;
+        LocalDateTime rangeEnd = to != null ? to : LocalDateTime.MAX;
+        if (rangeEnd.isBefore(rangeStart)) {
+            throw new IllegalArgumentException("Конец интервала не может быть раньше начала");
         }
+        return Collections.unmodifiableList(index.findInRange(rangeStart, rangeEnd));
     }
 
-    private void removeFromPrioritizedTasks(Task task) {
-        prioritizedTasks.remove(task);
+    static LocalDateTime findFreeSlot(TimeIntervalIndex index, LocalDateTime after, Duration duration) {
+        if (after == null) {
+            throw new IllegalArgumentException("Не задано время, с которого искать свободный интервал");
+        }
+        if (duration == null || !duration.isPositive()) {
+            throw new IllegalArgumentException("Длительность должна быть больше нуля");
+        }
+        return index.findFreeSlot(after, duration);
     }
 
-    private void updateInPrioritizedTasks(Task task) {
-        prioritizedTasks.remove(task);
-        addToPrioritizedTasks(task);
+    static List<TaskConflict> sweepConflicts(Collection<? extends Task> candidates) {
+        Comparator<Task> byStart = Comparator.comparingLong(Task::getStartEpochMinute).thenComparingInt(Task::getId);
+        PriorityQueue<Task> active = new PriorityQueue<>(Comparator.comparing(Task::getEndTime));
+        List<Task> scheduled = new ArrayList<>(candidates.size());
+        for (Task task : candidates) {
+            LocalDateTime endTime = task.getEndTime();
+            if (task.getStartTime() != null && endTime != null && endTime.isAfter(task.getStartTime())) {
+                scheduled.add(task);
+            }
+        }
+        scheduled.sort(byStart);
+        List<TaskConflict> conflicts = new ArrayList<>();
+        for (Task task : scheduled) {
+            while (!active.isEmpty() && !active.peek().getEndTime().isAfter(task.getStartTime())) {
+                active.poll();
+            }
+            for (Task running : active) {
+                conflicts.add(new TaskConflict(running, task));
+            }
+            active.add(task);
+        }
+        conflicts.sort(Comparator.comparing(TaskConflict::getSecond, byStart)
+                .thenComparing(TaskConflict::getFirst, byStart));
+        return conflicts;
+    }
+
+    static <T extends Task> List<T> pageAfter(PersistentIntMap<T> published, int afterId, int limit) {
+        checkLimit(limit);
+        return Collections.unmodifiableList(published.valuesAfter(afterId, limit));
+    }
+
+    // Опубликованная версия уже упорядочена по id; по ней выбираются ключи, а отдаются живые задачи.
+    private static <T extends Task> List<T> pageAfter(PersistentIntMap<T> published, IntObjectMap<T> storage,
+                                                      int afterId, int limit) {
+        checkLimit(limit);
+        List<T> page = published.valuesAfter(afterId, limit);
+        page.replaceAll(task -> storage.get(task.getId()));
+        return Collections.unmodifiableList(page);
+    }
+
+    static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля");
+        }
+    }
+
+    private static <T extends Task> List<T> snapshotById(PersistentIntMap<T> published, IntObjectMap<T> storage) {
+        List<T> snapshot = published.values();
+        snapshot.replaceAll(task -> storage.get(task.getId()));
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    private void assignIds(Collection<? extends Task> batch) {
+        IntObjectMap<Task> batchTasks = new IntObjectMap<>(batch.size());
+        List<Task> unassigned = new ArrayList<>();
+        for (Task task : batch) {
+            int id = task.getId();
+            Task sameId = id > 0 ? batchTasks.get(id) : null;
+            Task existing = id > 0 ? findStored(id) : null;
+            if (id <= 0 || (sameId != null && sameId != task) || (existing != null && existing != task)) {
+                unassigned.add(task);
+            } else {
+                idAllocator.reserve(id);
+                batchTasks.put(id, task);
+            }
+        }
+        if (!unassigned.isEmpty()) {
+            IdAllocator.IdBlock block = idAllocator.leaseBlock(unassigned.size());
+            for (Task task : unassigned) {
+                task.setId(block.nextId());
+            }
+        }
+    }
+
+    private void checkBatchConflicts(Collection<? extends Task> batch) {
+        List<Task> scheduled = new ArrayList<>();
+        for (Task task : batch) {
+            LocalDateTime endTime = task.getEndTime();
+            if (endTime != null && endTime.isAfter(task.getStartTime())) {
+                scheduled.add(task);
+            }
+        }
+        scheduled.sort(Comparator.comparingLong(Task::getStartEpochMinute).thenComparingInt(Task::getId));
+        Task latestEnding = null;
+        for (Task task : scheduled) {
+            if (latestEnding != null && task.getStartTime().isBefore(latestEnding.getEndTime())) {
+                throw overlapError(task, latestEnding);
+            }
+            Task conflictingTask = findConflictingTask(task);
+            if (conflictingTask != null) {
+                throw overlapError(task, conflictingTask);
+            }
+            if (latestEnding == null || task.getEndTime().isAfter(latestEnding.getEndTime())) {
+                latestEnding = task;
+            }
+        }
+    }
+
+    static IllegalArgumentException overlapError(Task task, Task conflictingTask) {
+        return new IllegalArgumentException(String.format(
+                "%s '%s' (ID: %d, время: %s) пересекается по времени с задачей '%s' (ID: %d, время: %s)",
+                task instanceof SubTask ? "Подзадача" : "Задача",
+                task.getName(), task.getId(), task.getStartTime(),
+                conflictingTask.getName(), conflictingTask.getId(), conflictingTask.getStartTime()
+        ));
+    }
+
+    private static void checkVersion(Task stored, long expectedVersion) {
+        if (stored.getVersion() != expectedVersion) {
+            throw new VersionConflictException(String.format(
+                    "Задача №%d была изменена: ожидалась версия %d, текущая %d",
+                    stored.getId(), expectedVersion, stored.getVersion()));
+        }
     }
 
-    private TaskStatus calculateEpicStatus(EpicTask epic) {
-        List<SubTask> epicSubTasks = subTasks.values().stream()
-                .filter(subTask -> subTask.getParentId() == epic.getId())
-                .toList();
-        if (epicSubTasks.isEmpty()) {
-            return TaskStatus.NEW;
-        }
-        boolean hasNewTasks = epicSubTasks.stream()
-                .anyMatch(task -> task.getStatus() == TaskStatus.NEW);
-        boolean hasInProgressTasks = epicSubTasks.stream()
-                .anyMatch(task -> task.getStatus() == TaskStatus.IN_PROGRESS);
-        boolean hasDoneTasks = epicSubTasks.stream()
-                .anyMatch(task -> task.getStatus() == TaskStatus.DONE);
-        if (hasDoneTasks && !hasNewTasks && !hasInProgressTasks) {
-            return TaskStatus.DONE;
-        } else if (hasInProgressTasks || (hasNewTasks && hasDoneTasks)) {
-            return TaskStatus.IN_PROGRESS;
-        }
-        return TaskStatus.NEW;
+    private void replay(UndoLog.Change change, boolean backwards) {
+        IntHashSet restoredEpics = new IntHashSet();
+        undoLog.pause(true);
+        try {
+            for (int i = 0; i < change.size(); i++) {
+                int index = backwards ? change.size() - 1 - i : i;
+                Task state = backwards ? change.beforeAt(index) : change.afterAt(index);
+                restore(change.idAt(index), state);
+                if (state instanceof EpicTask) {
+                    restoredEpics.add(change.idAt(index));
+                }
+            }
+        } finally {
+            undoLog.pause(false);
+        }
+        restoredEpics.forEach(epicId -> {
+            EpicTask epic = epics.get(epicId);
+            if (epic != null) {
+                epic.forEachSubTaskId(subTaskId -> {
+                    SubTask subTask = subTasks.get(subTaskId);
+                    if (subTask != null) {
+                        epic.trackSubTask(subTask);
+                    }
+                });
+            }
+        });
+    }
+
+    private void restore(int id, Task state) {
+        Task current = findStored(id);
+        if (current != null && !(current instanceof EpicTask)) {
+            removeFromPrioritizedTasks(current);
+        }
+        if (state == null) {
+            if (current instanceof EpicTask) {
+                epics.remove(id);
+                epicsView = null;
+            } else if (current instanceof SubTask) {
+                subTasks.remove(id);
+                subTasksView = null;
+            } else if (current != null) {
+                tasks.remove(id);
+                tasksView = null;
+            }
+            historyManager.removeById(id);
+            unindex(id);
+            return;
+        }
+        Task restored = state.copy();
+        if (restored instanceof EpicTask epic) {
+            epics.put(id, epic);
+            epicsView = null;
+        } else if (restored instanceof SubTask subTask) {
+            subTasks.put(id, subTask);
+            subTasksView = null;
+            addToPrioritizedTasks(subTask);
+        } else {
+            tasks.put(id, restored);
+            tasksView = null;
+            addToPrioritizedTasks(restored);
+        }
+        index(restored);
+    }
+
+    private void index(Task task) {
+        statusIndex.put(task);
+        textIndex.put(task);
+        nameIndex.put(task);
+        publish(task);
+    }
+
+    private void unindex(int id) {
+        statusIndex.remove(id);
+        textIndex.remove(id);
+        nameIndex.remove(id);
+        Task removed = findPublished(id);
+        if (removed == null) {
+            return;
+        }
+        TaskType type;
+        if (removed instanceof EpicTask) {
+            publishedEpics = publishedEpics.remove(id);
+            type = TaskType.EPIC;
+        } else if (removed instanceof SubTask) {
+            publishedSubTasks = publishedSubTasks.remove(id);
+            type = TaskType.SUBTASK;
+        } else {
+            publishedTasks = publishedTasks.remove(id);
+            type = TaskType.TASK;
+        }
+        boardStats.remove(removed);
+        undoLog.record(id, removed, null);
+        events.publish(++version, TaskEventType.REMOVED, type, removed);
+    }
+
+    private void publish(Task task) {
+        Task previous = findPublished(task.getId());
+        task.setVersion((previous != null ? previous.getVersion() : task.getVersion()) + 1);
+        Task copy = task.copy();
+        copy.freeze();
+        TaskType type;
+        if (copy instanceof EpicTask epic) {
+            publishedEpics = publishedEpics.put(epic.getId(), epic);
+            type = TaskType.EPIC;
+        } else if (copy instanceof SubTask subTask) {
+            publishedSubTasks = publishedSubTasks.put(subTask.getId(), subTask);
+            type = TaskType.SUBTASK;
+        } else {
+            publishedTasks = publishedTasks.put(copy.getId(), copy);
+            type = TaskType.TASK;
+        }
+        if (previous != null) {
+            boardStats.remove(previous);
+        }
+        boardStats.add(copy);
+        undoLog.record(copy.getId(), previous, copy);
+        events.publish(++version, previous == null ? TaskEventType.CREATED : TaskEventType.UPDATED, type, copy);
+    }
+
+    private Task findPublished(int id) {
+        Task task = publishedTasks.get(id);
+        if (task == null) {
+            task = publishedEpics.get(id);
+        }
+        if (task == null) {
+            task = publishedSubTasks.get(id);
+        }
+        return task;
+    }
+
+    private Task findConflictingTask(Task newTask) {
+        return scheduleIndex.findOverlap(newTask.getStartTime(), newTask.getEndTime(), newTask.getId());
+    }
+
+    private void addToPrioritizedTasks(Task task) {
+        if (task.getStartTime() != null) {
+            scheduleIndex.add(task);
+            prioritizedView = null;
+        }
+    }
+
+    private void removeFromPrioritizedTasks(Task task) {
+        scheduleIndex.remove(task.getId());
+        prioritizedView = null;
     }
 }
\ No newline at end of file
@@ -10,6 +10,26 @@ public class Managers {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getDefaultConcurrent() {
+        return new ConcurrentTaskManager(getDefault());
+    }
+
+    public static TaskManager getConcurrent(TaskManager manager) {
+        return new ConcurrentTaskManager(manager);
+    }
+
+    public static SingleWriterTaskManager getDefaultSingleWriter() {
+        return new SingleWriterTaskManager(getDefault());
+    }
+
+    public static VirtualThreadTaskManager getAsync(TaskManager manager) {
+        return new VirtualThreadTaskManager(manager);
+    }
+
+    public static TaskManager getSharded(int shardCount) {
+        return new ShardedTaskManager(shardCount);
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
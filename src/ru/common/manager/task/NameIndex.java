@@ -0,0 +1,58 @@
+package ru.common.manager.task;
+
+import ru.common.model.task.Task;
+import ru.common.util.collections.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Отсортированный индекс нормализованных имён задач для автодополнения по префиксу.
+ * Для каждого имени хранятся исходные написания по id задач.
+ */
+class NameIndex {
+    private final TreeMap<String, IntObjectMap<String>> namesByKey = new TreeMap<>();
+    private final IntObjectMap<String> keyById = new IntObjectMap<>();
+
+    public void put(Task task) {
+        remove(task.getId());
+        String key = normalize(task.getName());
+        if (key.isEmpty()) {
+            return;
+        }
+        namesByKey.computeIfAbsent(key, k -> new IntObjectMap<>()).put(task.getId(), task.getName());
+        keyById.put(task.getId(), key);
+    }
+
+    public void remove(int id) {
+        String key = keyById.remove(id);
+        if (key == null) {
+            return;
+        }
+        IntObjectMap<String> names = namesByKey.get(key);
+        names.remove(id);
+        if (names.isEmpty()) {
+            namesByKey.remove(key);
+        }
+    }
+
+    public List<String> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, IntObjectMap<String>> entry
+                : namesByKey.subMap(key, true, key + Character.MAX_VALUE, false).entrySet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(entry.getValue().values().iterator().next());
+        }
+        return result;
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
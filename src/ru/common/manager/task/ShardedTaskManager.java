@@ -0,0 +1,735 @@
+package ru.common.manager.task;
+
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.manager.exceptions.NotFoundException;
+import ru.common.manager.history.HistoryManager;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Менеджер, разделяющий данные между независимыми шардами (по умолчанию {@link ConcurrentTaskManager}
+ * со своими коллекциями, индексом расписания и историей). Доской считается эпик: он и все его подзадачи
+ * живут в одном шарде, поэтому пересчёт эпика не выходит за пределы шарда. Задачи и эпики попадают
+ * в шард по id (id - 1 по модулю числа шардов), подзадачи — в шард своего эпика. Таблица размещения
+ * хранит шард каждой живой сущности, а id выдаёт общий генератор, поэтому id уникален среди всех шардов:
+ * если запрошенный id уже занят в любом шарде, сущность получает новый.
+ * <p>
+ * Пересечения по времени запрещены во всём менеджере, как и в остальных реализациях: задача со временем
+ * сверяется с расписаниями всех шардов. Чтобы две доски не заняли один интервал одновременно, такая запись
+ * берёт блокировки полос расписания: время делится на часы, час попадает в одну из 64 полос по модулю.
+ * Записи в непересекающиеся часы идут параллельно, записи без времени блокировок не берут. Ограничения:
+ * интервал длиннее 63 часов берёт все полосы, часы, отстоящие на кратное 64 число часов, делят полосу,
+ * а сама проверка по-прежнему опрашивает расписания всех шардов, поэтому её стоимость растёт с их числом.
+ * <p>
+ * Общие списки собираются слиянием отсортированных списков шардов, порядок истории восстанавливается
+ * по общему счётчику просмотров.
+ * События и ранжирование поиска упорядочены только внутри шарда.
+ */
+public class ShardedTaskManager implements TaskManager {
+    private static final Comparator<Task> BY_ID = Comparator.comparingInt(Task::getId);
+    private static final Comparator<Task> BY_START =
+            Comparator.comparingLong(Task::getStartEpochMinute).thenComparingInt(Task::getId);
+    private static final int SCHEDULE_STRIPES = Long.SIZE;
+    private static final long STRIPE_MINUTES = 60;
+
+    private final List<TaskManager> shards;
+    private final Map<Integer, Integer> placement;
+    private final Map<Integer, Long> viewStamps;
+    private final AtomicLong viewSequence = new AtomicLong();
+    private final IdAllocator idAllocator;
+    private final ReentrantLock[] scheduleLocks = new ReentrantLock[SCHEDULE_STRIPES];
+
+    public ShardedTaskManager(int shardCount) {
+        this(shardCount, new IdAllocator());
+    }
+
+    public ShardedTaskManager(int shardCount, Supplier<? extends TaskManager> shardFactory) {
+        this(createShards(shardCount, shardFactory), new IdAllocator(), new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>());
+        for (int i = 0; i < shards.size(); i++) {
+            TaskManager shard = shards.get(i);
+            placeExisting(shard.getAllEpics(), i);
+            placeExisting(shard.getAllTasks(), i);
+            placeExisting(shard.getAllSubTasks(), i);
+        }
+    }
+
+    private ShardedTaskManager(int shardCount, IdAllocator idAllocator) {
+        this(createShards(shardCount, () -> new ConcurrentTaskManager(new InMemoryTaskManager(idAllocator))),
+                idAllocator, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    private ShardedTaskManager(List<TaskManager> shards, IdAllocator idAllocator, Map<Integer, Integer> placement,
+                               Map<Integer, Long> viewStamps) {
+        this.shards = List.copyOf(shards);
+        this.idAllocator = idAllocator;
+        this.placement = placement;
+        this.viewStamps = viewStamps;
+        viewStamps.values().stream().mapToLong(Long::longValue).max().ifPresent(viewSequence::set);
+        for (int i = 0; i < SCHEDULE_STRIPES; i++) {
+            scheduleLocks[i] = new ReentrantLock();
+        }
+    }
+
+    private static List<TaskManager> createShards(int shardCount, Supplier<? extends TaskManager> shardFactory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Количество шардов должно быть больше нуля");
+        }
+        Objects.requireNonNull(shardFactory, "Фабрика шардов не может быть null");
+        List<TaskManager> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(Objects.requireNonNull(shardFactory.get(), "Шард не может быть null"));
+        }
+        return shards;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    int shardIndexOf(int id) {
+        Integer placed = placement.get(id);
+        return placed != null ? placed : Math.floorMod(id - 1, shards.size());
+    }
+
+    private TaskManager shardOf(int id) {
+        return shards.get(shardIndexOf(id));
+    }
+
+    private int place(Task task) {
+        claimId(task, id -> Math.floorMod(id - 1, shards.size()));
+        return shardIndexOf(task.getId());
+    }
+
+    private int place(SubTask subTask) {
+        int shardIndex = parentShardIndex(subTask);
+        claimId(subTask, id -> shardIndex);
+        return shardIndex;
+    }
+
+    private void claimId(Task task, IntUnaryOperator shardFor) {
+        int id = task.getId();
+        if (id > 0 && placement.putIfAbsent(id, shardFor.applyAsInt(id)) == null) {
+            idAllocator.reserve(id);
+            return;
+        }
+        do {
+            id = idAllocator.nextId();
+        } while (placement.putIfAbsent(id, shardFor.applyAsInt(id)) != null);
+        task.setId(id);
+    }
+
+    private void placeExisting(Collection<? extends Task> existing, int shardIndex) {
+        for (Task task : existing) {
+            placement.put(task.getId(), shardIndex);
+            idAllocator.reserve(task.getId());
+        }
+    }
+
+    private <T extends Task> T created(T task, int requestedId, int shardIndex) {
+        if (task.getId() != requestedId) {
+            placement.remove(requestedId);
+            placement.put(task.getId(), shardIndex);
+        }
+        return task;
+    }
+
+    private void forget(Collection<? extends Task> removed) {
+        removed.forEach(task -> placement.remove(task.getId()));
+    }
+
+    private <T extends Task> T viewed(T task) {
+        if (task != null) {
+            viewStamps.put(task.getId(), viewSequence.incrementAndGet());
+        }
+        return task;
+    }
+
+    private int parentShardIndex(SubTask subTask) {
+        Integer parentId = subTask.getParentId();
+        if (parentId == null) {
+            throw new IllegalArgumentException("Родительская задача не найдена");
+        }
+        return shardIndexOf(parentId);
+    }
+
+    private void checkSameBoard(SubTask subTask) {
+        if (parentShardIndex(subTask) != shardIndexOf(subTask.getId())) {
+            throw new IllegalArgumentException("Подзадачу нельзя перенести в эпик другой доски");
+        }
+    }
+
+    private static boolean isTimed(Task task) {
+        return task.hasStartTime() && task.getDurationMinutes() > 0;
+    }
+
+    private <R> R scheduled(Task task, Supplier<R> write) {
+        return scheduled(List.of(task), write);
+    }
+
+    private <R> R scheduled(Collection<? extends Task> tasks, Supplier<R> write) {
+        long stripes = 0;
+        for (Task task : tasks) {
+            if (isTimed(task)) {
+                stripes |= scheduleStripes(task);
+            }
+        }
+        if (stripes == 0) {
+            return write.get();
+        }
+        for (int i = 0; i < SCHEDULE_STRIPES; i++) {
+            if ((stripes & (1L << i)) != 0) {
+                scheduleLocks[i].lock();
+            }
+        }
+        try {
+            return write.get();
+        } finally {
+            for (int i = SCHEDULE_STRIPES - 1; i >= 0; i--) {
+                if ((stripes & (1L << i)) != 0) {
+                    scheduleLocks[i].unlock();
+                }
+            }
+        }
+    }
+
+    // Пересекающиеся интервалы делят хотя бы один час, а значит, и полосу этого часа.
+    private static long scheduleStripes(Task task) {
+        long start = task.getStartEpochMinute();
+        long first = Math.floorDiv(start, STRIPE_MINUTES);
+        long last = Math.floorDiv(start + task.getDurationMinutes() - 1, STRIPE_MINUTES);
+        if (last - first >= SCHEDULE_STRIPES - 1) {
+            return -1L;
+        }
+        long stripes = 0;
+        for (long bucket = first; bucket <= last; bucket++) {
+            stripes |= 1L << Math.floorMod(bucket, SCHEDULE_STRIPES);
+        }
+        return stripes;
+    }
+
+    private void checkOtherShards(Task candidate, int shardIndex) {
+        if (!isTimed(candidate)) {
+            return;
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            if (i == shardIndex) {
+                continue;
+            }
+            for (Task existing : shards.get(i).getPrioritizedTasks(candidate.getStartTime(), candidate.getEndTime())) {
+                if (existing.getId() != candidate.getId() && isTimed(existing)) {
+                    throw InMemoryTaskManager.overlapError(candidate, existing);
+                }
+            }
+        }
+    }
+
+    private boolean updateChecked(Task task, Function<TaskManager, Boolean> update) {
+        int shardIndex = shardIndexOf(task.getId());
+        return scheduled(task, () -> {
+            if (placement.containsKey(task.getId())) {
+                checkOtherShards(task, shardIndex);
+            }
+            return update.apply(shards.get(shardIndex));
+        });
+    }
+
+    @Override
+    public EpicTask createEpic(EpicTask epic) {
+        Objects.requireNonNull(epic, "Эпик не может быть null");
+        int shardIndex = place(epic);
+        int requestedId = epic.getId();
+        try {
+            return created(shards.get(shardIndex).createEpic(epic), requestedId, shardIndex);
+        } catch (RuntimeException e) {
+            placement.remove(requestedId);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<EpicTask> getAllEpics() {
+        return merge(TaskManager::getAllEpics, BY_ID).toList();
+    }
+
+    @Override
+    public List<EpicTask> getEpicsPage(int afterId, int limit) {
+        return merge(shard -> shard.getEpicsPage(afterId, limit), BY_ID).limit(limit).toList();
+    }
+
+    @Override
+    public Stream<EpicTask> streamEpics() {
+        return merge(TaskManager::getAllEpics, BY_ID);
+    }
+
+    @Override
+    public void removeAllEpics() {
+        for (TaskManager shard : shards) {
+            List<EpicTask> epics = shard.getAllEpics();
+            List<SubTask> subTasks = shard.getAllSubTasks();
+            shard.removeAllEpics();
+            forget(epics);
+            forget(subTasks);
+        }
+    }
+
+    @Override
+    public EpicTask getEpicById(int id) {
+        return viewed(shardOf(id).getEpicById(id));
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic) {
+        Objects.requireNonNull(epic, "Эпик не может быть null");
+        return shardOf(epic.getId()).updateEpic(epic);
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic, long expectedVersion) {
+        Objects.requireNonNull(epic, "Эпик не может быть null");
+        return shardOf(epic.getId()).updateEpic(epic, expectedVersion);
+    }
+
+    @Override
+    public boolean removeEpic(EpicTask epic) {
+        if (epic == null) throw new NotFoundException("Epic with id null not found");
+        TaskManager shard = shardOf(epic.getId());
+        List<SubTask> subTasks = shard.getSubTasksByEpicId(epic.getId());
+        boolean removed = shard.removeEpic(epic);
+        forget(subTasks);
+        placement.remove(epic.getId());
+        return removed;
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        Objects.requireNonNull(task, "Задача не может быть null");
+        if (task instanceof SubTask) {
+            throw new IllegalArgumentException("Для подзадач используйте createSubTask");
+        }
+        int shardIndex = place(task);
+        int requestedId = task.getId();
+        try {
+            return scheduled(task, () -> {
+                checkOtherShards(task, shardIndex);
+                return created(shards.get(shardIndex).createTask(task), requestedId, shardIndex);
+            });
+        } catch (RuntimeException e) {
+            placement.remove(requestedId);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Task> createTasks(Collection<? extends Task> batch) {
+        Objects.requireNonNull(batch, "Список задач не может быть null");
+        for (Task task : batch) {
+            Objects.requireNonNull(task, "Задача не может быть null");
+            if (task instanceof SubTask) {
+                throw new IllegalArgumentException("Для подзадач используйте createSubTask");
+            }
+        }
+        return createInShards(batch, this::place, TaskManager::createTasks,
+                (shard, task) -> shard.removeTask(task));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return merge(TaskManager::getAllTasks, BY_ID).toList();
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return merge(shard -> shard.getTasksPage(afterId, limit), BY_ID).limit(limit).toList();
+    }
+
+    @Override
+    public Stream<Task> streamTasks() {
+        return merge(TaskManager::getAllTasks, BY_ID);
+    }
+
+    @Override
+    public void removeAllTasks() {
+        for (TaskManager shard : shards) {
+            List<Task> tasks = shard.getAllTasks();
+            shard.removeAllTasks();
+            forget(tasks);
+        }
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return viewed(shardOf(id).getTaskById(id));
+    }
+
+    @Override
+    public SubTask getSubTaskById(int id) {
+        return viewed(shardOf(id).getSubTaskById(id));
+    }
+
+    @Override
+    public boolean updateTask(Task task) {
+        Objects.requireNonNull(task, "Задача не может быть null");
+        if (task instanceof SubTask subTask) {
+            checkSameBoard(subTask);
+        }
+        return updateChecked(task, shard -> shard.updateTask(task));
+    }
+
+    @Override
+    public boolean updateTask(Task task, long expectedVersion) {
+        Objects.requireNonNull(task, "Задача не может быть null");
+        if (task instanceof SubTask subTask) {
+            checkSameBoard(subTask);
+        }
+        return updateChecked(task, shard -> shard.updateTask(task, expectedVersion));
+    }
+
+    @Override
+    public boolean removeTask(Task task) {
+        if (task == null) throw new NotFoundException("Task is null");
+        boolean removed = shardOf(task.getId()).removeTask(task);
+        placement.remove(task.getId());
+        return removed;
+    }
+
+    @Override
+    public SubTask createSubTask(SubTask subTask) {
+        Objects.requireNonNull(subTask, "Подзадача не может быть null");
+        int shardIndex = place(subTask);
+        int requestedId = subTask.getId();
+        try {
+            return scheduled(subTask, () -> {
+                checkOtherShards(subTask, shardIndex);
+                return created(shards.get(shardIndex).createSubTask(subTask), requestedId, shardIndex);
+            });
+        } catch (RuntimeException e) {
+            placement.remove(requestedId);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<SubTask> createSubTasks(Collection<? extends SubTask> batch) {
+        Objects.requireNonNull(batch, "Список подзадач не может быть null");
+        for (SubTask subTask : batch) {
+            Objects.requireNonNull(subTask, "Подзадача не может быть null");
+            parentShardIndex(subTask);
+        }
+        return createInShards(batch, this::place, TaskManager::createSubTasks,
+                (shard, subTask) -> shard.removeSubTask(subTask.getId()));
+    }
+
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        return merge(TaskManager::getAllSubTasks, BY_ID).toList();
+    }
+
+    @Override
+    public List<SubTask> getSubTasksPage(int afterId, int limit) {
+        return merge(shard -> shard.getSubTasksPage(afterId, limit), BY_ID).limit(limit).toList();
+    }
+
+    @Override
+    public Stream<SubTask> streamSubTasks() {
+        return merge(TaskManager::getAllSubTasks, BY_ID);
+    }
+
+    @Override
+    public void removeAllSubTasks() {
+        for (TaskManager shard : shards) {
+            List<SubTask> subTasks = shard.getAllSubTasks();
+            shard.removeAllSubTasks();
+            forget(subTasks);
+        }
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask) {
+        Objects.requireNonNull(subTask, "Подзадача не может быть null");
+        checkSameBoard(subTask);
+        return updateChecked(subTask, shard -> shard.updateSubTask(subTask));
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask, long expectedVersion) {
+        Objects.requireNonNull(subTask, "Подзадача не может быть null");
+        checkSameBoard(subTask);
+        return updateChecked(subTask, shard -> shard.updateSubTask(subTask, expectedVersion));
+    }
+
+    @Override
+    public boolean removeSubTask(int subTaskId) {
+        boolean removed = shardOf(subTaskId).removeSubTask(subTaskId);
+        placement.remove(subTaskId);
+        return removed;
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByEpicId(int epicId) {
+        return shardOf(epicId).getSubTasksByEpicId(epicId);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        long collectedAt = viewSequence.get();
+        List<Task> history = new ArrayList<>();
+        for (TaskManager shard : shards) {
+            history.addAll(shard.getHistory());
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (Task task : history) {
+            ids.add(task.getId());
+        }
+        viewStamps.entrySet().removeIf(entry -> entry.getValue() <= collectedAt && !ids.contains(entry.getKey()));
+        history.sort(Comparator.comparingLong(task -> viewStamps.getOrDefault(task.getId(), Long.MAX_VALUE)));
+        return history;
+    }
+
+    @Override
+    public String getHistoryAsString() {
+        HistoryManager historyManager = Managers.getDefaultHistory();
+        getHistory().forEach(historyManager::add);
+        return historyManager.getHistoryAsString();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return merge(TaskManager::getPrioritizedTasks, BY_START).toList();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return merge(shard -> shard.getPrioritizedTasks(from, to), BY_START).toList();
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        Objects.requireNonNull(status, "Статус не может быть null");
+        return merge(shard -> shard.getTasksByStatus(status), BY_ID).toList();
+    }
+
+    @Override
+    public List<Integer> search(String query, int limit) {
+        List<List<Integer>> rankings = new ArrayList<>(shards.size());
+        for (TaskManager shard : shards) {
+            rankings.add(shard.search(query, limit));
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int rank = 0; result.size() < limit; rank++) {
+            boolean found = false;
+            for (List<Integer> ranking : rankings) {
+                if (rank < ranking.size() && result.size() < limit) {
+                    result.add(ranking.get(rank));
+                    found = true;
+                }
+            }
+            if (!found) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        TreeMap<String, String> names = new TreeMap<>();
+        for (TaskManager shard : shards) {
+            for (String name : shard.autocomplete(prefix, limit)) {
+                names.putIfAbsent(NameIndex.normalize(name), name);
+            }
+        }
+        return names.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public LocalDateTime findNextFreeSlot(LocalDateTime after, Duration duration) {
+        LocalDateTime candidate = after;
+        while (true) {
+            LocalDateTime next = candidate;
+            for (TaskManager shard : shards) {
+                next = shard.findNextFreeSlot(next, duration);
+            }
+            if (next.equals(candidate)) {
+                return candidate;
+            }
+            candidate = next;
+        }
+    }
+
+    @Override
+    public List<TaskConflict> findTimeConflicts() {
+        return InMemoryTaskManager.sweepConflicts(getPrioritizedTasks());
+    }
+
+    @Override
+    public TaskStats getStats(LocalDateTime now) {
+        List<TaskStats> parts = new ArrayList<>(shards.size());
+        for (TaskManager shard : shards) {
+            parts.add(shard.getStats(now));
+        }
+        return TaskStats.sum(parts);
+    }
+
+    @Override
+    public TaskEventSubscription subscribe() {
+        List<TaskEventSubscription> subscriptions = new ArrayList<>(shards.size());
+        for (TaskManager shard : shards) {
+            subscriptions.add(shard.subscribe());
+        }
+        return TaskEventSubscription.merge(subscriptions);
+    }
+
+    @Override
+    public ShardedTaskManager snapshot() {
+        List<TaskManager> snapshots = new ArrayList<>(shards.size());
+        for (TaskManager shard : shards) {
+            snapshots.add(shard.snapshot());
+        }
+        return new ShardedTaskManager(snapshots, idAllocator, new ConcurrentHashMap<>(placement),
+                new ConcurrentHashMap<>(viewStamps));
+    }
+
+    private <T extends Task> List<T> createInShards(Collection<? extends T> batch, ToIntFunction<T> place,
+                                                    BiFunction<TaskManager, List<T>, List<? extends T>> create,
+                                                    BiConsumer<TaskManager, T> rollback) {
+        List<List<T>> byShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            byShard.add(new ArrayList<>());
+        }
+        List<T> requested = new ArrayList<>(batch.size());
+        int[] requestedIds = new int[batch.size()];
+        for (T task : batch) {
+            int shardIndex = place.applyAsInt(task);
+            requestedIds[requested.size()] = task.getId();
+            requested.add(task);
+            byShard.get(shardIndex).add(task);
+        }
+        List<T> created = new ArrayList<>(batch.size());
+        try {
+            scheduled(requested, () -> {
+                checkBatchSchedule(byShard);
+                for (int i = 0; i < byShard.size(); i++) {
+                    if (!byShard.get(i).isEmpty()) {
+                        created.addAll(create.apply(shards.get(i), byShard.get(i)));
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            for (T task : created) {
+                rollback.accept(shardOf(task.getId()), task);
+            }
+            for (int id : requestedIds) {
+                placement.remove(id);
+            }
+            throw e;
+        }
+        for (int i = 0; i < requested.size(); i++) {
+            T task = requested.get(i);
+            created(task, requestedIds[i], shardIndexOf(requestedIds[i]));
+        }
+        return List.copyOf(requested);
+    }
+
+    private void checkBatchSchedule(List<? extends List<? extends Task>> byShard) {
+        List<Task> batch = new ArrayList<>();
+        byShard.forEach(batch::addAll);
+        List<TaskConflict> conflicts = InMemoryTaskManager.sweepConflicts(batch);
+        if (!conflicts.isEmpty()) {
+            throw InMemoryTaskManager.overlapError(conflicts.get(0).getSecond(), conflicts.get(0).getFirst());
+        }
+        for (int i = 0; i < byShard.size(); i++) {
+            for (Task task : byShard.get(i)) {
+                checkOtherShards(task, i);
+            }
+        }
+    }
+
+    private <T extends Task> Stream<T> merge(Function<TaskManager, List<T>> source, Comparator<? super T> order) {
+        if (shards.size() == 1) {
+            return source.apply(shards.get(0)).stream();
+        }
+        List<List<T>> sorted = new ArrayList<>(shards.size());
+        for (TaskManager shard : shards) {
+            sorted.add(source.apply(shard));
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new MergeIterator<>(sorted, order),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static class MergeIterator<T> implements Iterator<T> {
+        private final PriorityQueue<Cursor<T>> heads;
+
+        private MergeIterator(List<List<T>> sources, Comparator<? super T> order) {
+            heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.head, b.head));
+            for (List<T> source : sources) {
+                Iterator<T> iterator = source.iterator();
+                if (iterator.hasNext()) {
+                    heads.add(new Cursor<>(iterator));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Cursor<T> cursor = heads.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            T value = cursor.head;
+            if (cursor.iterator.hasNext()) {
+                cursor.head = cursor.iterator.next();
+                heads.add(cursor);
+            }
+            return value;
+        }
+    }
+
+    private static class Cursor<T> {
+        private final Iterator<T> iterator;
+        private T head;
+
+        private Cursor(Iterator<T> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+    }
+}
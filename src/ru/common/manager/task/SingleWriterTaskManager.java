@@ -0,0 +1,417 @@
+package ru.common.manager.task;
+
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Менеджер с единственным пишущим потоком. Изменения из любых потоков попадают в неблокирующую очередь
+ * и применяются одним потоком пачками; после каждой пачки публикуется снимок, из которого без блокировок
+ * читают остальные методы. Если внутри {@link FileBackedTaskManager}, пачка сохраняется в файл один раз.
+ * Просмотр по id читает снимок и отправляет запись в историю в очередь, не дожидаясь её применения.
+ */
+public class SingleWriterTaskManager implements TaskManager, AutoCloseable {
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final Mutation<Void> STOP = new Mutation<>(manager -> null);
+
+    private final TaskManager delegate;
+    private final int maxBatchSize;
+    private final LinkedTransferQueue<Mutation<?>> queue = new LinkedTransferQueue<>();
+    private final Thread writer;
+    private volatile TaskManager published;
+    private volatile boolean running = true;
+
+    public SingleWriterTaskManager(TaskManager delegate) {
+        this(delegate, DEFAULT_BATCH_SIZE);
+    }
+
+    public SingleWriterTaskManager(TaskManager delegate, int maxBatchSize) {
+        this.delegate = Objects.requireNonNull(delegate, "Менеджер не может быть null");
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть больше нуля");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.published = delegate.snapshot();
+        this.writer = new Thread(this::runLoop, "task-manager-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public <T> CompletableFuture<T> submit(Function<TaskManager, T> mutation) {
+        Mutation<T> task = new Mutation<>(Objects.requireNonNull(mutation, "Операция не может быть null"));
+        if (!running) {
+            task.future.completeExceptionally(stopped());
+            return task.future;
+        }
+        queue.add(task);
+        if (!running && !writer.isAlive()) {
+            rejectPending();
+        }
+        return task.future;
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectPending();
+    }
+
+    private void runLoop() {
+        List<Mutation<?>> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (true) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                queue.drainTo(batch, maxBatchSize - 1);
+                int stopAt = batch.indexOf(STOP);
+                if (stopAt >= 0) {
+                    apply(batch.subList(0, stopAt));
+                    for (Mutation<?> rejected : batch.subList(stopAt + 1, batch.size())) {
+                        rejected.future.completeExceptionally(stopped());
+                    }
+                    return;
+                }
+                apply(batch);
+                batch.clear();
+            }
+        } finally {
+            running = false;
+            for (Mutation<?> mutation : batch) {
+                mutation.future.completeExceptionally(stopped());
+            }
+            rejectPending();
+        }
+    }
+
+    private void apply(List<Mutation<?>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Throwable batchError = null;
+        try {
+            Runnable applyAll = () -> batch.forEach(mutation -> mutation.apply(delegate));
+            if (delegate instanceof FileBackedTaskManager fileBacked) {
+                fileBacked.runBatch(applyAll);
+            } else {
+                applyAll.run();
+            }
+        } catch (Throwable e) {
+            batchError = e;
+        }
+        published = delegate.snapshot();
+        for (Mutation<?> mutation : batch) {
+            mutation.complete(batchError);
+        }
+    }
+
+    private void rejectPending() {
+        Mutation<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(stopped());
+        }
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("Менеджер остановлен");
+    }
+
+    private <T> T await(Function<TaskManager, T> mutation) {
+        try {
+            return submit(mutation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T extends Task> T view(T task, Function<TaskManager, T> record) {
+        if (task == null) {
+            return null;
+        }
+        submit(record);
+        @SuppressWarnings("unchecked")
+        T copy = (T) task.copy();
+        return copy;
+    }
+
+    @Override
+    public EpicTask createEpic(EpicTask epic) {
+        return await(manager -> manager.createEpic(epic));
+    }
+
+    @Override
+    public List<EpicTask> getAllEpics() {
+        return published.getAllEpics();
+    }
+
+    @Override
+    public List<EpicTask> getEpicsPage(int afterId, int limit) {
+        return published.getEpicsPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<EpicTask> streamEpics() {
+        return published.streamEpics();
+    }
+
+    @Override
+    public void removeAllEpics() {
+        await(manager -> {
+            manager.removeAllEpics();
+            return null;
+        });
+    }
+
+    @Override
+    public EpicTask getEpicById(int id) {
+        return view(published.getEpicById(id), manager -> manager.getEpicById(id));
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic) {
+        return await(manager -> manager.updateEpic(epic));
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic, long expectedVersion) {
+        return await(manager -> manager.updateEpic(epic, expectedVersion));
+    }
+
+    @Override
+    public boolean removeEpic(EpicTask epic) {
+        return await(manager -> manager.removeEpic(epic));
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        return await(manager -> manager.createTask(task));
+    }
+
+    @Override
+    public List<Task> createTasks(Collection<? extends Task> tasks) {
+        return await(manager -> manager.createTasks(tasks));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return published.getAllTasks();
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return published.getTasksPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Task> streamTasks() {
+        return published.streamTasks();
+    }
+
+    @Override
+    public void removeAllTasks() {
+        await(manager -> {
+            manager.removeAllTasks();
+            return null;
+        });
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return view(published.getTaskById(id), manager -> manager.getTaskById(id));
+    }
+
+    @Override
+    public SubTask getSubTaskById(int id) {
+        return view(published.getSubTaskById(id), manager -> manager.getSubTaskById(id));
+    }
+
+    @Override
+    public boolean updateTask(Task task) {
+        return await(manager -> manager.updateTask(task));
+    }
+
+    @Override
+    public boolean updateTask(Task task, long expectedVersion) {
+        return await(manager -> manager.updateTask(task, expectedVersion));
+    }
+
+    @Override
+    public boolean removeTask(Task task) {
+        return await(manager -> manager.removeTask(task));
+    }
+
+    @Override
+    public SubTask createSubTask(SubTask subTask) {
+        return await(manager -> manager.createSubTask(subTask));
+    }
+
+    @Override
+    public List<SubTask> createSubTasks(Collection<? extends SubTask> subTasks) {
+        return await(manager -> manager.createSubTasks(subTasks));
+    }
+
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        return published.getAllSubTasks();
+    }
+
+    @Override
+    public List<SubTask> getSubTasksPage(int afterId, int limit) {
+        return published.getSubTasksPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<SubTask> streamSubTasks() {
+        return published.streamSubTasks();
+    }
+
+    @Override
+    public void removeAllSubTasks() {
+        await(manager -> {
+            manager.removeAllSubTasks();
+            return null;
+        });
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask) {
+        return await(manager -> manager.updateSubTask(subTask));
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask, long expectedVersion) {
+        return await(manager -> manager.updateSubTask(subTask, expectedVersion));
+    }
+
+    @Override
+    public boolean removeSubTask(int subTaskId) {
+        return await(manager -> manager.removeSubTask(subTaskId));
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByEpicId(int epicId) {
+        return published.getSubTasksByEpicId(epicId);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return await(manager -> List.copyOf(manager.getHistory()));
+    }
+
+    @Override
+    public String getHistoryAsString() {
+        return await(TaskManager::getHistoryAsString);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return published.getPrioritizedTasks();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return published.getPrioritizedTasks(from, to);
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return published.getTasksByStatus(status);
+    }
+
+    @Override
+    public List<Integer> search(String query, int limit) {
+        return published.search(query, limit);
+    }
+
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        return published.autocomplete(prefix, limit);
+    }
+
+    @Override
+    public LocalDateTime findNextFreeSlot(LocalDateTime after, Duration duration) {
+        return published.findNextFreeSlot(after, duration);
+    }
+
+    @Override
+    public List<TaskConflict> findTimeConflicts() {
+        return published.findTimeConflicts();
+    }
+
+    @Override
+    public TaskStats getStats(LocalDateTime now) {
+        return published.getStats(now);
+    }
+
+    @Override
+    public TaskEventSubscription subscribe() {
+        return delegate.subscribe();
+    }
+
+    @Override
+    public TaskManager snapshot() {
+        return published;
+    }
+
+    private static class Mutation<T> {
+        private final Function<TaskManager, T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable error;
+
+        private Mutation(Function<TaskManager, T> action) {
+            this.action = action;
+        }
+
+        private void apply(TaskManager manager) {
+            try {
+                result = action.apply(manager);
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+
+        private void complete(Throwable batchError) {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else if (batchError != null) {
+                future.completeExceptionally(batchError);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
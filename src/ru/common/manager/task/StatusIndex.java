@@ -0,0 +1,49 @@
+package ru.common.manager.task;
+
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskStatus;
+import ru.common.util.collections.IntHashSet;
+import ru.common.util.collections.IntObjectMap;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+
+/**
+ * Вторичный индекс id задач по статусу. Статус копируется при добавлении,
+ * поэтому индекс нужно обновлять после каждой смены статуса.
+ */
+class StatusIndex {
+    private final EnumMap<TaskStatus, IntHashSet> idsByStatus = new EnumMap<>(TaskStatus.class);
+    private final IntObjectMap<TaskStatus> statusById = new IntObjectMap<>();
+
+    public StatusIndex() {
+        for (TaskStatus status : TaskStatus.values()) {
+            idsByStatus.put(status, new IntHashSet());
+        }
+    }
+
+    public void put(Task task) {
+        TaskStatus status = task.getStatus();
+        TaskStatus previous = statusById.put(task.getId(), status);
+        if (previous == status) {
+            return;
+        }
+        if (previous != null) {
+            idsByStatus.get(previous).remove(task.getId());
+        }
+        idsByStatus.get(status).add(task.getId());
+    }
+
+    public void remove(int id) {
+        TaskStatus previous = statusById.remove(id);
+        if (previous != null) {
+            idsByStatus.get(previous).remove(id);
+        }
+    }
+
+    public int[] idsWith(TaskStatus status) {
+        int[] ids = idsByStatus.get(status).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+}
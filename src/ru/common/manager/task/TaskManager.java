@@ -1,28 +1,48 @@
 package ru.common.manager.task;
 
+import ru.common.manager.event.TaskEventSubscription;
 import ru.common.model.task.EpicTask;
 import ru.common.model.task.SubTask;
 import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TaskManager {
     EpicTask createEpic(EpicTask epic);
 
     List<EpicTask> getAllEpics();
 
+    List<EpicTask> getEpicsPage(int afterId, int limit);
+
+    Stream<EpicTask> streamEpics();
+
     void removeAllEpics();
 
     EpicTask getEpicById(int id);
 
     boolean updateEpic(EpicTask epic);
 
+    boolean updateEpic(EpicTask epic, long expectedVersion);
+
     boolean removeEpic(EpicTask epic);
 
     Task createTask(Task task);
 
+    List<Task> createTasks(Collection<? extends Task> tasks);
+
     List<Task> getAllTasks();
 
+    List<Task> getTasksPage(int afterId, int limit);
+
+    Stream<Task> streamTasks();
+
     void removeAllTasks();
 
     Task getTaskById(int id);
@@ -31,16 +51,26 @@ public interface TaskManager {
 
     boolean updateTask(Task task);
 
+    boolean updateTask(Task task, long expectedVersion);
+
     boolean removeTask(Task task);
 
     SubTask createSubTask(SubTask subTask);
 
+    List<SubTask> createSubTasks(Collection<? extends SubTask> subTasks);
+
     List<SubTask> getAllSubTasks();
 
+    List<SubTask> getSubTasksPage(int afterId, int limit);
+
+    Stream<SubTask> streamSubTasks();
+
     void removeAllSubTasks();
 
     boolean updateSubTask(SubTask subTask);
 
+    boolean updateSubTask(SubTask subTask, long expectedVersion);
+
     boolean removeSubTask(int subTaskId);
 
     List<SubTask> getSubTasksByEpicId(int epicId);
@@ -50,4 +80,22 @@ public interface TaskManager {
     String getHistoryAsString();
 
     List<Task> getPrioritizedTasks();
+
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    List<Task> getTasksByStatus(TaskStatus status);
+
+    List<Integer> search(String query, int limit);
+
+    List<String> autocomplete(String prefix, int limit);
+
+    LocalDateTime findNextFreeSlot(LocalDateTime after, Duration duration);
+
+    List<TaskConflict> findTimeConflicts();
+
+    TaskStats getStats(LocalDateTime now);
+
+    TaskEventSubscription subscribe();
+
+    TaskManager snapshot();
 }
\ No newline at end of file
@@ -0,0 +1,390 @@
+package ru.common.manager.task;
+
+import ru.common.manager.event.TaskEventRing;
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.manager.history.HistoryManager;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+import ru.common.util.collections.PersistentIntMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Неизменяемая версия содержимого менеджера. Хранит копии задач в персистентных отображениях,
+ * разделяемых с менеджером, поэтому чтение снимка не требует блокировок и не мешает записи.
+ * Вторичные индексы строятся по требованию при первом запросе. Просмотр задач через снимок
+ * не попадает в историю, а любые изменения запрещены — и самого снимка, и выданных им задач:
+ * они заморожены при публикации, для правки нужно взять {@link Task#copy()}.
+ */
+public final class TaskSnapshot implements TaskManager {
+    private final long version;
+    private final PersistentIntMap<EpicTask> epics;
+    private final PersistentIntMap<Task> tasks;
+    private final PersistentIntMap<SubTask> subTasks;
+    private final List<Task> history;
+    private volatile List<EpicTask> epicsView;
+    private volatile List<Task> tasksView;
+    private volatile List<SubTask> subTasksView;
+    private volatile List<Task> prioritizedView;
+    private volatile TimeIntervalIndex scheduleIndex;
+    private volatile StatusIndex statusIndex;
+    private volatile TextIndex textIndex;
+    private volatile NameIndex nameIndex;
+    private volatile BoardStats boardStats;
+
+    TaskSnapshot(long version, PersistentIntMap<EpicTask> epics, PersistentIntMap<Task> tasks,
+                 PersistentIntMap<SubTask> subTasks, List<Task> history) {
+        this.version = version;
+        this.epics = epics;
+        this.tasks = tasks;
+        this.subTasks = subTasks;
+        this.history = List.copyOf(history);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public List<EpicTask> getAllEpics() {
+        List<EpicTask> view = epicsView;
+        if (view == null) {
+            view = Collections.unmodifiableList(epics.values());
+            epicsView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public List<EpicTask> getEpicsPage(int afterId, int limit) {
+        return InMemoryTaskManager.pageAfter(epics, afterId, limit);
+    }
+
+    @Override
+    public Stream<EpicTask> streamEpics() {
+        return epics.stream();
+    }
+
+    @Override
+    public EpicTask getEpicById(int id) {
+        return epics.get(id);
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        List<Task> view = tasksView;
+        if (view == null) {
+            view = Collections.unmodifiableList(tasks.values());
+            tasksView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return InMemoryTaskManager.pageAfter(tasks, afterId, limit);
+    }
+
+    @Override
+    public Stream<Task> streamTasks() {
+        return tasks.stream();
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public SubTask getSubTaskById(int id) {
+        return subTasks.get(id);
+    }
+
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        List<SubTask> view = subTasksView;
+        if (view == null) {
+            view = Collections.unmodifiableList(subTasks.values());
+            subTasksView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public List<SubTask> getSubTasksPage(int afterId, int limit) {
+        return InMemoryTaskManager.pageAfter(subTasks, afterId, limit);
+    }
+
+    @Override
+    public Stream<SubTask> streamSubTasks() {
+        return subTasks.stream();
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByEpicId(int epicId) {
+        EpicTask epic = epics.get(epicId);
+        if (epic == null) {
+            return List.of();
+        }
+        List<SubTask> result = new ArrayList<>();
+        epic.forEachSubTaskId(subTaskId -> {
+            SubTask subTask = subTasks.get(subTaskId);
+            if (subTask != null && Objects.equals(subTask.getParentId(), epicId)) {
+                result.add(subTask);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return history;
+    }
+
+    @Override
+    public String getHistoryAsString() {
+        HistoryManager historyManager = Managers.getDefaultHistory();
+        history.forEach(historyManager::add);
+        return historyManager.getHistoryAsString();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        List<Task> view = prioritizedView;
+        if (view == null) {
+            List<Task> scheduled = new ArrayList<>();
+            for (Task task : getAllTasks()) {
+                if (task.getStartTime() != null) {
+                    scheduled.add(task);
+                }
+            }
+            for (SubTask subTask : getAllSubTasks()) {
+                if (subTask.getStartTime() != null) {
+                    scheduled.add(subTask);
+                }
+            }
+            scheduled.sort(Comparator.comparingLong(Task::getStartEpochMinute).thenComparingInt(Task::getId));
+            view = Collections.unmodifiableList(scheduled);
+            prioritizedView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return InMemoryTaskManager.findInRange(scheduleIndex(), from, to);
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        Objects.requireNonNull(status, "Статус не может быть null");
+        StatusIndex index = statusIndex;
+        if (index == null) {
+            index = new StatusIndex();
+            for (Task task : allEntities()) {
+                index.put(task);
+            }
+            statusIndex = index;
+        }
+        int[] ids = index.idsWith(status);
+        List<Task> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(findById(id));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Integer> search(String query, int limit) {
+        InMemoryTaskManager.checkLimit(limit);
+        TextIndex index = textIndex;
+        if (index == null) {
+            index = new TextIndex();
+            for (Task task : allEntities()) {
+                index.put(task);
+            }
+            textIndex = index;
+        }
+        return index.search(query, limit);
+    }
+
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        InMemoryTaskManager.checkLimit(limit);
+        NameIndex index = nameIndex;
+        if (index == null) {
+            index = new NameIndex();
+            for (Task task : allEntities()) {
+                index.put(task);
+            }
+            nameIndex = index;
+        }
+        return index.complete(prefix, limit);
+    }
+
+    @Override
+    public LocalDateTime findNextFreeSlot(LocalDateTime after, Duration duration) {
+        return InMemoryTaskManager.findFreeSlot(scheduleIndex(), after, duration);
+    }
+
+    @Override
+    public List<TaskConflict> findTimeConflicts() {
+        return InMemoryTaskManager.sweepConflicts(getPrioritizedTasks());
+    }
+
+    @Override
+    public TaskStats getStats(LocalDateTime now) {
+        Objects.requireNonNull(now, "Момент времени не может быть null");
+        BoardStats stats = boardStats;
+        if (stats == null) {
+            stats = new BoardStats();
+            for (Task task : allEntities()) {
+                stats.add(task);
+            }
+            boardStats = stats;
+        }
+        return stats.toStats(now);
+    }
+
+    @Override
+    public TaskEventSubscription subscribe() {
+        return new TaskEventRing(1).subscribe();
+    }
+
+    @Override
+    public TaskSnapshot snapshot() {
+        return this;
+    }
+
+    @Override
+    public EpicTask createEpic(EpicTask epic) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAllEpics() {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean updateEpic(EpicTask epic, long expectedVersion) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeEpic(EpicTask epic) {
+        throw readOnly();
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<Task> createTasks(Collection<? extends Task> tasks) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAllTasks() {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean updateTask(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean updateTask(Task task, long expectedVersion) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeTask(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public SubTask createSubTask(SubTask subTask) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<SubTask> createSubTasks(Collection<? extends SubTask> subTasks) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAllSubTasks() {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean updateSubTask(SubTask subTask, long expectedVersion) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeSubTask(int subTaskId) {
+        throw readOnly();
+    }
+
+    private TimeIntervalIndex scheduleIndex() {
+        TimeIntervalIndex index = scheduleIndex;
+        if (index == null) {
+            index = new TimeIntervalIndex();
+            for (Task task : getPrioritizedTasks()) {
+                index.add(task);
+            }
+            scheduleIndex = index;
+        }
+        return index;
+    }
+
+    private List<Task> allEntities() {
+        List<Task> all = new ArrayList<>(tasks.size() + epics.size() + subTasks.size());
+        all.addAll(getAllTasks());
+        all.addAll(getAllEpics());
+        all.addAll(getAllSubTasks());
+        return all;
+    }
+
+    private Task findById(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        if (task == null) {
+            task = subTasks.get(id);
+        }
+        return task;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Снимок доступен только для чтения");
+    }
+}
@@ -0,0 +1,124 @@
+package ru.common.manager.task;
+
+import ru.common.model.task.Task;
+import ru.common.util.collections.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Инвертированный индекс по словам из имени и описания задачи.
+ * Слово в имени весит вдвое больше, чем в описании; результаты ранжируются по tf-idf.
+ */
+class TextIndex {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private final Map<String, IntObjectMap<Integer>> postings = new HashMap<>();
+    private final IntObjectMap<Set<String>> termsById = new IntObjectMap<>();
+
+    public void put(Task task) {
+        remove(task.getId());
+        Map<String, Integer> weights = new HashMap<>();
+        for (String term : tokenize(task.getName())) {
+            weights.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(task.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        if (weights.isEmpty()) {
+            return;
+        }
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new IntObjectMap<>()).put(task.getId(), weight));
+        termsById.put(task.getId(), weights.keySet());
+    }
+
+    public void remove(int id) {
+        Set<String> terms = termsById.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            IntObjectMap<Integer> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    public List<Integer> search(String query, int limit) {
+        IntObjectMap<double[]> scores = new IntObjectMap<>();
+        int documents = termsById.size();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            IntObjectMap<Integer> ids = postings.get(term);
+            if (ids == null) {
+                continue;
+            }
+            double idf = Math.log(1.0 + (double) documents / ids.size());
+            ids.forEach((id, weight) -> {
+                double[] score = scores.get(id);
+                if (score == null) {
+                    score = new double[1];
+                    scores.put(id, score);
+                }
+                score[0] += weight * idf;
+            });
+        }
+        PriorityQueue<Hit> top = new PriorityQueue<>();
+        scores.forEach((id, score) -> {
+            Hit hit = new Hit(id, score[0]);
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (hit.compareTo(top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        });
+        List<Integer> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(top.poll().id);
+        }
+        return result.reversed();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static class Hit implements Comparable<Hit> {
+        private final int id;
+        private final double score;
+
+        public Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            int cmp = Double.compare(score, other.score);
+            return cmp != 0 ? cmp : Integer.compare(other.id, id);
+        }
+    }
+}
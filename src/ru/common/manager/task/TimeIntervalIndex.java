@@ -0,0 +1,254 @@
+package ru.common.manager.task;
+
+import ru.common.model.task.Task;
+import ru.common.util.collections.IntObjectMap;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AVL-дерево интервалов [startTime, endTime), упорядоченное по (startTime, id),
+ * с максимальным временем окончания в каждом поддереве. Границы копируются в узел при добавлении.
+ */
+class TimeIntervalIndex {
+    private final IntObjectMap<Node> nodesById = new IntObjectMap<>();
+    private Node root;
+
+    public void add(Task task) {
+        remove(task.getId());
+        LocalDateTime start = task.getStartTime();
+        if (start == null) {
+            return;
+        }
+        Duration duration = task.getDuration();
+        LocalDateTime end = (duration != null && duration.isPositive()) ? start.plus(duration) : start;
+        Node node = new Node(task, start, end);
+        root = insert(root, node);
+        nodesById.put(task.getId(), node);
+    }
+
+    public void remove(int id) {
+        Node node = nodesById.remove(id);
+        if (node != null) {
+            root = delete(root, node.start, node.id);
+        }
+    }
+
+    public void clear() {
+        nodesById.clear();
+        root = null;
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+
+    public Task findOverlap(LocalDateTime start, LocalDateTime end, int excludeId) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            return null;
+        }
+        Node node = findOverlap(root, start, end, excludeId);
+        return node != null ? node.task : null;
+    }
+
+    public LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        LocalDateTime candidate = after;
+        Node blocking = findOverlap(root, candidate, slotEnd(candidate, duration), -1);
+        while (blocking != null) {
+            candidate = blocking.end;
+            blocking = findOverlap(root, candidate, slotEnd(candidate, duration), -1);
+        }
+        return candidate;
+    }
+
+    private static LocalDateTime slotEnd(LocalDateTime start, Duration duration) {
+        try {
+            return start.plus(duration);
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Интервал длительностью %d мин. с %s выходит за пределы допустимых дат", duration.toMinutes(), start));
+        }
+    }
+
+    public List<Task> tasks() {
+        List<Task> result = new ArrayList<>(nodesById.size());
+        collectAll(root, result);
+        return result;
+    }
+
+    public List<Task> findInRange(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        collectInRange(root, from, to, result);
+        return result;
+    }
+
+    private void collectAll(Node node, List<Task> result) {
+        if (node == null) {
+            return;
+        }
+        collectAll(node.left, result);
+        result.add(node.task);
+        collectAll(node.right, result);
+    }
+
+    private void collectInRange(Node node, LocalDateTime from, LocalDateTime to, List<Task> result) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return;
+        }
+        collectInRange(node.left, from, to, result);
+        if (!node.start.isBefore(to)) {
+            return;
+        }
+        if (node.hasLength() ? node.end.isAfter(from) : !node.start.isBefore(from)) {
+            result.add(node.task);
+        }
+        collectInRange(node.right, from, to, result);
+    }
+
+    private Node findOverlap(Node node, LocalDateTime start, LocalDateTime end, int excludeId) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return null;
+        }
+        Node found = findOverlap(node.left, start, end, excludeId);
+        if (found != null) {
+            return found;
+        }
+        if (!node.start.isBefore(end)) {
+            return null;
+        }
+        if (node.id != excludeId && node.hasLength() && node.end.isAfter(start)) {
+            return node;
+        }
+        return findOverlap(node.right, start, end, excludeId);
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.start, newNode.id, node) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(LocalDateTime start, int id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+        private final Task task;
+        private final int id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        public Node(Task task, LocalDateTime start, LocalDateTime end) {
+            this.task = task;
+            this.id = task.getId();
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        private boolean hasLength() {
+            return end.isAfter(start);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.common.manager.task;
+
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.Task;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Журнал изменений для отмены и повтора. Каждое изменение хранит состояния затронутых задач
+ * до и после него — те же замороженные ({@link ru.common.model.task.Task#freeze()}) копии, что публикуются в снимки,
+ * поэтому запись не копирует задачи.
+ * Суммарный объём журнала ограничен бюджетом в байтах (по грубой оценке), старые изменения вытесняются.
+ */
+class UndoLog {
+    private static final int ENTRY_OVERHEAD = 16;
+    private static final int TASK_OVERHEAD = 96;
+
+    private final Deque<Change> undo = new ArrayDeque<>();
+    private final Deque<Change> redo = new ArrayDeque<>();
+    private final long budget;
+    private long usedBytes;
+    private Change open;
+    private boolean paused;
+
+    UndoLog(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Бюджет журнала не может быть отрицательным");
+        }
+        this.budget = budget;
+    }
+
+    public void startChange() {
+        close();
+    }
+
+    public void record(int id, Task before, Task after) {
+        if (paused) {
+            return;
+        }
+        if (open == null) {
+            open = new Change();
+            clear(redo);
+        }
+        long bytes = ENTRY_OVERHEAD + estimate(before) + estimate(after);
+        open.add(id, before, after, bytes);
+        usedBytes += bytes;
+    }
+
+    public Change takeUndo() {
+        close();
+        return undo.pollLast();
+    }
+
+    public Change takeRedo() {
+        close();
+        return redo.pollLast();
+    }
+
+    public void undone(Change change) {
+        redo.addLast(change);
+    }
+
+    public void redone(Change change) {
+        undo.addLast(change);
+    }
+
+    public boolean canUndo() {
+        return open != null || !undo.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return open == null && !redo.isEmpty();
+    }
+
+    public void pause(boolean paused) {
+        this.paused = paused;
+    }
+
+    public void clear() {
+        open = null;
+        undo.clear();
+        redo.clear();
+        usedBytes = 0;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void close() {
+        if (open == null) {
+            return;
+        }
+        undo.addLast(open);
+        open = null;
+        while (usedBytes > budget && !undo.isEmpty()) {
+            usedBytes -= undo.pollFirst().bytes;
+        }
+    }
+
+    private void clear(Deque<Change> changes) {
+        for (Change change : changes) {
+            usedBytes -= change.bytes;
+        }
+        changes.clear();
+    }
+
+    private static long estimate(Task task) {
+        if (task == null) {
+            return 0;
+        }
+        long bytes = TASK_OVERHEAD + 2L * task.getName().length();
+        if (task.getDescription() != null) {
+            bytes += 2L * task.getDescription().length();
+        }
+        if (task instanceof EpicTask epic) {
+            bytes += 8L * epic.getSubTaskCount();
+        }
+        return bytes;
+    }
+
+    /**
+     * Состояния задач до и после одной операции, в порядке изменения.
+     */
+    static class Change {
+        private int size;
+        private int[] ids = new int[4];
+        private Task[] before = new Task[4];
+        private Task[] after = new Task[4];
+        private long bytes;
+
+        private void add(int id, Task beforeState, Task afterState, long entryBytes) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                before = Arrays.copyOf(before, size * 2);
+                after = Arrays.copyOf(after, size * 2);
+            }
+            ids[size] = id;
+            before[size] = beforeState;
+            after[size] = afterState;
+            size++;
+            bytes += entryBytes;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int idAt(int index) {
+            return ids[index];
+        }
+
+        public Task beforeAt(int index) {
+            return before[index];
+        }
+
+        public Task afterAt(int index) {
+            return after[index];
+        }
+    }
+}
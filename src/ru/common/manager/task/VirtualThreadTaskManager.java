@@ -0,0 +1,254 @@
+package ru.common.manager.task;
+
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskConflict;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * {@link AsyncTaskManager}, выполняющий каждую операцию в отдельном виртуальном потоке.
+ * Ожидание блокировок и записи файла занимает только виртуальный поток, а не поток платформы.
+ * Менеджер без собственной синхронизации ({@link InMemoryTaskManager} и наследники)
+ * оборачивается в {@link ConcurrentTaskManager}.
+ */
+public class VirtualThreadTaskManager implements AsyncTaskManager, AutoCloseable {
+    private final TaskManager delegate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public VirtualThreadTaskManager(TaskManager delegate) {
+        Objects.requireNonNull(delegate, "Менеджер не может быть null");
+        this.delegate = delegate instanceof InMemoryTaskManager ? new ConcurrentTaskManager(delegate) : delegate;
+    }
+
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    @Override
+    public CompletableFuture<EpicTask> createEpic(EpicTask epic) {
+        return CompletableFuture.supplyAsync(() -> delegate.createEpic(epic), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<EpicTask>> getAllEpics() {
+        return CompletableFuture.supplyAsync(delegate::getAllEpics, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<EpicTask>> getEpicsPage(int afterId, int limit) {
+        return CompletableFuture.supplyAsync(() -> delegate.getEpicsPage(afterId, limit), executor);
+    }
+
+    @Override
+    public CompletableFuture<Stream<EpicTask>> streamEpics() {
+        return CompletableFuture.supplyAsync(delegate::streamEpics, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAllEpics() {
+        return CompletableFuture.runAsync(delegate::removeAllEpics, executor);
+    }
+
+    @Override
+    public CompletableFuture<EpicTask> getEpicById(int id) {
+        return CompletableFuture.supplyAsync(() -> delegate.getEpicById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateEpic(EpicTask epic) {
+        return CompletableFuture.supplyAsync(() -> delegate.updateEpic(epic), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateEpic(EpicTask epic, long expectedVersion) {
+        return CompletableFuture.supplyAsync(() -> delegate.updateEpic(epic, expectedVersion), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeEpic(EpicTask epic) {
+        return CompletableFuture.supplyAsync(() -> delegate.removeEpic(epic), executor);
+    }
+
+    @Override
+    public CompletableFuture<Task> createTask(Task task) {
+        return CompletableFuture.supplyAsync(() -> delegate.createTask(task), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> createTasks(Collection<? extends Task> tasks) {
+        return CompletableFuture.supplyAsync(() -> delegate.createTasks(tasks), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getAllTasks() {
+        return CompletableFuture.supplyAsync(delegate::getAllTasks, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getTasksPage(int afterId, int limit) {
+        return CompletableFuture.supplyAsync(() -> delegate.getTasksPage(afterId, limit), executor);
+    }
+
+    @Override
+    public CompletableFuture<Stream<Task>> streamTasks() {
+        return CompletableFuture.supplyAsync(delegate::streamTasks, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAllTasks() {
+        return CompletableFuture.runAsync(delegate::removeAllTasks, executor);
+    }
+
+    @Override
+    public CompletableFuture<Task> getTaskById(int id) {
+        return CompletableFuture.supplyAsync(() -> delegate.getTaskById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<SubTask> getSubTaskById(int id) {
+        return CompletableFuture.supplyAsync(() -> delegate.getSubTaskById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateTask(Task task) {
+        return CompletableFuture.supplyAsync(() -> delegate.updateTask(task), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateTask(Task task, long expectedVersion) {
+        return CompletableFuture.supplyAsync(() -> delegate.updateTask(task, expectedVersion), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeTask(Task task) {
+        return CompletableFuture.supplyAsync(() -> delegate.removeTask(task), executor);
+    }
+
+    @Override
+    public CompletableFuture<SubTask> createSubTask(SubTask subTask) {
+        return CompletableFuture.supplyAsync(() -> delegate.createSubTask(subTask), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<SubTask>> createSubTasks(Collection<? extends SubTask> subTasks) {
+        return CompletableFuture.supplyAsync(() -> delegate.createSubTasks(subTasks), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<SubTask>> getAllSubTasks() {
+        return CompletableFuture.supplyAsync(delegate::getAllSubTasks, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<SubTask>> getSubTasksPage(int afterId, int limit) {
+        return CompletableFuture.supplyAsync(() -> delegate.getSubTasksPage(afterId, limit), executor);
+    }
+
+    @Override
+    public CompletableFuture<Stream<SubTask>> streamSubTasks() {
+        return CompletableFuture.supplyAsync(delegate::streamSubTasks, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAllSubTasks() {
+        return CompletableFuture.runAsync(delegate::removeAllSubTasks, executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateSubTask(SubTask subTask) {
+        return CompletableFuture.supplyAsync(() -> delegate.updateSubTask(subTask), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateSubTask(SubTask subTask, long expectedVersion) {
+        return CompletableFuture.supplyAsync(() -> delegate.updateSubTask(subTask, expectedVersion), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeSubTask(int subTaskId) {
+        return CompletableFuture.supplyAsync(() -> delegate.removeSubTask(subTaskId), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<SubTask>> getSubTasksByEpicId(int epicId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getSubTasksByEpicId(epicId), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getHistory() {
+        return CompletableFuture.supplyAsync(delegate::getHistory, executor);
+    }
+
+    @Override
+    public CompletableFuture<String> getHistoryAsString() {
+        return CompletableFuture.supplyAsync(delegate::getHistoryAsString, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getPrioritizedTasks() {
+        return CompletableFuture.supplyAsync(delegate::getPrioritizedTasks, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return CompletableFuture.supplyAsync(() -> delegate.getPrioritizedTasks(from, to), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getTasksByStatus(TaskStatus status) {
+        return CompletableFuture.supplyAsync(() -> delegate.getTasksByStatus(status), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Integer>> search(String query, int limit) {
+        return CompletableFuture.supplyAsync(() -> delegate.search(query, limit), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> autocomplete(String prefix, int limit) {
+        return CompletableFuture.supplyAsync(() -> delegate.autocomplete(prefix, limit), executor);
+    }
+
+    @Override
+    public CompletableFuture<LocalDateTime> findNextFreeSlot(LocalDateTime after, Duration duration) {
+        return CompletableFuture.supplyAsync(() -> delegate.findNextFreeSlot(after, duration), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<TaskConflict>> findTimeConflicts() {
+        return CompletableFuture.supplyAsync(delegate::findTimeConflicts, executor);
+    }
+
+    @Override
+    public CompletableFuture<TaskStats> getStats(LocalDateTime now) {
+        return CompletableFuture.supplyAsync(() -> delegate.getStats(now), executor);
+    }
+
+    @Override
+    public CompletableFuture<TaskEventSubscription> subscribe() {
+        return CompletableFuture.supplyAsync(delegate::subscribe, executor);
+    }
+
+    @Override
+    public CompletableFuture<TaskManager> snapshot() {
+        return CompletableFuture.supplyAsync(delegate::snapshot, executor);
+    }
+}
@@ -1,20 +1,27 @@
 package ru.common.model.task;
 
+import ru.common.util.collections.IntObjectMap;
+import ru.common.util.collections.PersistentIntSet;
+
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
 
 public class EpicTask extends Task {
-    private final List<Integer> subTaskIds = new ArrayList<>();
+    private PersistentIntSet subTaskIds = PersistentIntSet.empty();
     private LocalDateTime calculatedEndTime;
+    private transient SubTaskAggregates aggregates;
+    private transient volatile List<Integer> subTaskIdsView;
 
     EpicTask(int id, String name, String description, TaskStatus status, List<Integer> subTaskIds) {
         super(id, name, description, status, null, null);
         if (subTaskIds != null) {
             for (Integer st : subTaskIds) {
-                if (st != null && !this.subTaskIds.contains(st) && st != id) {
-                    this.subTaskIds.add(st);
+                if (st != null && st != id) {
+                    this.subTaskIds = this.subTaskIds.add(st);
                 }
             }
         }
@@ -37,22 +44,57 @@ public class EpicTask extends Task {
     }
 
     public List<Integer> getSubTaskIds() {
-        return new ArrayList<>(subTaskIds);
+        List<Integer> view = subTaskIdsView;
+        if (view == null) {
+            view = Arrays.stream(subTaskIds.toArray()).boxed().toList();
+            subTaskIdsView = view;
+        }
+        return view;
+    }
+
+    public int getSubTaskCount() {
+        return subTaskIds.size();
+    }
+
+    public void forEachSubTaskId(IntConsumer action) {
+        subTaskIds.forEach(action);
+    }
+
+    public boolean containsSubTaskId(int subTaskId) {
+        return subTaskIds.contains(subTaskId);
     }
 
     public void addSubTaskId(int subTaskId) {
-        if (subTaskId == getId()) return;
-        if (!subTaskIds.contains(subTaskId)) {
-            subTaskIds.add(subTaskId);
-        }
+        checkWritable();
+        if (subTaskId == getId() || subTaskIds.contains(subTaskId)) return;
+        subTaskIds = subTaskIds.add(subTaskId);
+        subTaskIdsView = null;
     }
 
     public void removeSubTaskId(int subTaskId) {
-        subTaskIds.remove(Integer.valueOf(subTaskId));
+        checkWritable();
+        if (subTaskIds.contains(subTaskId)) {
+            subTaskIds = subTaskIds.remove(subTaskId);
+            subTaskIdsView = null;
+        }
+        if (aggregates != null) {
+            aggregates.remove(subTaskId);
+        }
     }
 
     public void clearSubTaskIds() {
-        subTaskIds.clear();
+        checkWritable();
+        subTaskIds = PersistentIntSet.empty();
+        subTaskIdsView = null;
+        aggregates = null;
+    }
+
+    public void inheritSubTasks(EpicTask previous) {
+        checkWritable();
+        subTaskIds = previous.subTaskIds.remove(getId());
+        subTaskIdsView = null;
+        aggregates = previous.aggregates;
+        previous.aggregates = null;
     }
 
     @Override
@@ -70,48 +112,27 @@ public class EpicTask extends Task {
         return calculatedEndTime;
     }
 
-    public LocalDateTime calculateStartTime(List<SubTask> subTasks) {
-        if (subTasks.isEmpty()) {
-            return null;
-        }
-        LocalDateTime earliestStart = null;
-        for (SubTask subTask : subTasks) {
-            if (subTask.getStartTime() != null) {
-                if (earliestStart == null || subTask.getStartTime().isBefore(earliestStart)) {
-                    earliestStart = subTask.getStartTime();
-                }
-            }
-        }
-        return earliestStart;
+    public void trackSubTask(SubTask subTask) {
+        checkWritable();
+        if (subTask.getId() == getId()) return;
+        addSubTaskId(subTask.getId());
+        aggregates().put(subTask);
     }
 
-    public Duration calculateDuration(List<SubTask> subTasks) {
-        if (subTasks.isEmpty()) {
-            return Duration.ZERO;
-        }
-        Duration totalDuration = Duration.ZERO;
-        for (SubTask subTask : subTasks) {
-            if (subTask.getDuration() != null) {
-                totalDuration = totalDuration.plus(subTask.getDuration());
-            }
-        }
-        return totalDuration;
+    public TaskStatus calculateStatus() {
+        return aggregates().status();
     }
 
-    public LocalDateTime calculateEndTime(List<SubTask> subTasks) {
-        if (subTasks.isEmpty()) {
-            return null;
-        }
-        LocalDateTime latestEnd = null;
-        for (SubTask subTask : subTasks) {
-            LocalDateTime subTaskEndTime = subTask.getEndTime();
-            if (subTaskEndTime != null) {
-                if (latestEnd == null || subTaskEndTime.isAfter(latestEnd)) {
-                    latestEnd = subTaskEndTime;
-                }
-            }
-        }
-        return latestEnd;
+    public LocalDateTime calculateStartTime() {
+        return aggregates().startTime();
+    }
+
+    public Duration calculateDuration() {
+        return aggregates().totalDuration;
+    }
+
+    public LocalDateTime calculateEndTime() {
+        return aggregates().endTime();
     }
 
     public void setCalculatedStartTime(LocalDateTime startTime) {
@@ -123,9 +144,22 @@ public class EpicTask extends Task {
     }
 
     public void setCalculatedEndTime(LocalDateTime endTime) {
+        checkWritable();
         this.calculatedEndTime = endTime;
     }
 
+    @Override
+    public EpicTask copy() {
+        EpicTask copy = new EpicTask(getId(), getName(), getDescription(), getStatus(), null);
+        copy.subTaskIds = subTaskIds;
+        copy.subTaskIdsView = subTaskIdsView;
+        copy.setCalculatedStartTime(getStartTime());
+        copy.setCalculatedDuration(getDuration());
+        copy.setCalculatedEndTime(calculatedEndTime);
+        copy.setVersion(getVersion());
+        return copy;
+    }
+
     @Override
     public String toCSVString() {
         String startTimeStr = (getStartTime() != null) ? getStartTime().toString() : "";
@@ -139,4 +173,90 @@ public class EpicTask extends Task {
                 startTimeStr,
                 durationStr);
     }
+
+    private SubTaskAggregates aggregates() {
+        if (aggregates == null) {
+            aggregates = new SubTaskAggregates();
+        }
+        return aggregates;
+    }
+
+    private static class SubTaskAggregates {
+        private final IntObjectMap<SubTaskValues> values = new IntObjectMap<>();
+        private final int[] statusCounts = new int[TaskStatus.values().length];
+        private final TreeMap<LocalDateTime, Integer> startTimes = new TreeMap<>();
+        private final TreeMap<LocalDateTime, Integer> endTimes = new TreeMap<>();
+        private Duration totalDuration = Duration.ZERO;
+
+        private void put(SubTask subTask) {
+            remove(subTask.getId());
+            SubTaskValues current = new SubTaskValues(subTask);
+            values.put(subTask.getId(), current);
+            statusCounts[current.status.ordinal()]++;
+            if (current.startTime != null) {
+                startTimes.merge(current.startTime, 1, Integer::sum);
+            }
+            if (current.endTime != null) {
+                endTimes.merge(current.endTime, 1, Integer::sum);
+            }
+            if (current.duration != null) {
+                totalDuration = totalDuration.plus(current.duration);
+            }
+        }
+
+        private void remove(int subTaskId) {
+            SubTaskValues previous = values.remove(subTaskId);
+            if (previous == null) {
+                return;
+            }
+            statusCounts[previous.status.ordinal()]--;
+            if (previous.startTime != null) {
+                decrement(startTimes, previous.startTime);
+            }
+            if (previous.endTime != null) {
+                decrement(endTimes, previous.endTime);
+            }
+            if (previous.duration != null) {
+                totalDuration = totalDuration.minus(previous.duration);
+            }
+        }
+
+        private TaskStatus status() {
+            int newCount = statusCounts[TaskStatus.NEW.ordinal()];
+            int inProgressCount = statusCounts[TaskStatus.IN_PROGRESS.ordinal()];
+            int doneCount = statusCounts[TaskStatus.DONE.ordinal()];
+            if (doneCount > 0 && newCount == 0 && inProgressCount == 0) {
+                return TaskStatus.DONE;
+            } else if (inProgressCount > 0 || (newCount > 0 && doneCount > 0)) {
+                return TaskStatus.IN_PROGRESS;
+            }
+            return TaskStatus.NEW;
+        }
+
+        private LocalDateTime startTime() {
+            return startTimes.isEmpty() ? null : startTimes.firstKey();
+        }
+
+        private LocalDateTime endTime() {
+            return endTimes.isEmpty() ? null : endTimes.lastKey();
+        }
+
+        private static void decrement(TreeMap<LocalDateTime, Integer> counts, LocalDateTime key) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static class SubTaskValues {
+        private final TaskStatus status;
+        private final LocalDateTime startTime;
+        private final Duration duration;
+        private final LocalDateTime endTime;
+
+        private SubTaskValues(SubTask subTask) {
+            this.status = subTask.getStatus();
+            this.startTime = subTask.getStartTime();
+            this.duration = subTask.getDuration();
+            this.endTime = subTask.getEndTime();
+        }
+    }
 }
\ No newline at end of file
@@ -11,17 +11,11 @@ public class SubTask extends Task {
     public SubTask(String name, String description, int parentId) {
         super(name, description, null, null);
         this.parentId = parentId;
-        if (this.parentId != null && this.parentId.equals(getId())) {
-            this.parentId = null;
-        }
     }
 
     public SubTask(String name, int parentId) {
         super(name, null, null);
         this.parentId = parentId;
-        if (this.parentId != null && this.parentId.equals(getId())) {
-            this.parentId = null;
-        }
     }
 
     public SubTask(String name) {
@@ -37,12 +31,22 @@ public class SubTask extends Task {
     }
 
     public void setParentId(Integer parentId) {
+        checkWritable();
         if (parentId != null && parentId.equals(getId())) {
             return;
         }
         this.parentId = parentId;
     }
 
+    @Override
+    public SubTask copy() {
+        SubTask copy = new SubTask(getId(), getName(), getDescription(), getStatus(), parentId);
+        copy.setStartTime(getStartTime());
+        copy.setDuration(getDuration());
+        copy.setVersion(getVersion());
+        return copy;
+    }
+
     @Override
     public String toCSVString() {
         Integer epicId = parentId;
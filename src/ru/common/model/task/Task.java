@@ -1,61 +1,68 @@
 package ru.common.model.task;
 
-import ru.common.manager.task.InMemoryTaskManager;
 import ru.common.util.CustomDateTimeFormatter;
+import ru.common.util.StringPool;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
+/**
+ * Время начала хранится как число минут от эпохи, длительность — как число минут,
+ * поэтому задача не держит отдельных объектов LocalDateTime и Duration; точность — до минуты.
+ * Имена и описания проходят через {@link StringPool}, и повторяющиеся строки разделяются между задачами.
+ */
 public class Task {
+    public static final long NO_START = Long.MIN_VALUE;
+    public static final int NO_DURATION = Integer.MIN_VALUE;
+
     private int id;
     private String name;
     private String description;
     private TaskStatus status;
-    private LocalDateTime startTime;
-    private Duration duration;
+    private transient long startMinute = NO_START;
+    private transient int durationMinutes = NO_DURATION;
+    private long version;
+    private transient boolean frozen;
 
     Task(int id, String name, String description, TaskStatus status, LocalDateTime startTime, Duration duration) {
         this.id = id;
-        this.name = Objects.requireNonNull(name, "Имя не может быть null").trim();
-        this.description = description;
+        this.name = internName(name);
+        this.description = StringPool.intern(description);
         this.status = Objects.requireNonNull(status, "Статус не может быть null");
-        this.startTime = startTime;
-        this.duration = duration;
+        this.startMinute = toStartMinute(startTime);
+        this.durationMinutes = toDurationMinutes(duration);
     }
 
     public Task(String name, String description, Integer parentId, LocalDateTime startTime, Duration duration) {
-        this.name = Objects.requireNonNull(name, "Имя не может быть null").trim();
-        this.id = InMemoryTaskManager.getNextId();
+        this.name = internName(name);
         this.status = TaskStatus.NEW;
-        this.description = description;
-        this.startTime = startTime;
-        this.duration = duration;
+        this.description = StringPool.intern(description);
+        this.startMinute = toStartMinute(startTime);
+        this.durationMinutes = toDurationMinutes(duration);
     }
 
     public Task(String name, String description, LocalDateTime startTime, Duration duration) {
-        this.name = Objects.requireNonNull(name, "Имя не может быть null").trim();
-        this.id = InMemoryTaskManager.getNextId();
+        this.name = internName(name);
         this.status = TaskStatus.NEW;
-        this.description = description;
-        this.startTime = startTime;
-        this.duration = duration;
+        this.description = StringPool.intern(description);
+        this.startMinute = toStartMinute(startTime);
+        this.durationMinutes = toDurationMinutes(duration);
     }
 
     public Task(String name, int parentId, LocalDateTime startTime, Duration duration) {
-        this.name = Objects.requireNonNull(name, "Имя не может быть null").trim();
-        this.id = InMemoryTaskManager.getNextId();
+        this.name = internName(name);
         this.status = TaskStatus.NEW;
-        this.startTime = startTime;
-        this.duration = duration;
+        this.startMinute = toStartMinute(startTime);
+        this.durationMinutes = toDurationMinutes(duration);
     }
 
     public Task(String name, LocalDateTime startTime, Duration duration) {
-        this.name = Objects.requireNonNull(name, "Имя не может быть null").trim();
-        this.id = InMemoryTaskManager.getNextId();
+        this.name = internName(name);
         this.status = TaskStatus.NEW;
-        this.startTime = startTime;
-        this.duration = duration;
+        this.startMinute = toStartMinute(startTime);
+        this.durationMinutes = toDurationMinutes(duration);
     }
 
     public int getId() {
@@ -63,6 +70,7 @@ public class Task {
     }
 
     public void setId(int id) {
+        checkWritable();
         this.id = id;
     }
 
@@ -71,7 +79,8 @@ public class Task {
     }
 
     public void setName(String name) {
-        this.name = Objects.requireNonNull(name, "Имя не может быть null").trim();
+        checkWritable();
+        this.name = internName(name);
     }
 
     public String getDescription() {
@@ -79,7 +88,8 @@ public class Task {
     }
 
     public void setDescription(String description) {
-        this.description = Objects.requireNonNull(description, "Описание не может быть null");
+        checkWritable();
+        this.description = StringPool.intern(Objects.requireNonNull(description, "Описание не может быть null"));
     }
 
     public TaskStatus getStatus() {
@@ -87,30 +97,83 @@ public class Task {
     }
 
     public void setStatus(TaskStatus status) {
+        checkWritable();
         this.status = Objects.requireNonNull(status, "Статус не может быть null");
     }
 
     public LocalDateTime getStartTime() {
-        return startTime;
+        if (startMinute == NO_START) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(startMinute * 60, 0, ZoneOffset.UTC);
     }
 
     public void setStartTime(LocalDateTime startTime) {
-        this.startTime = startTime;
+        checkWritable();
+        this.startMinute = toStartMinute(startTime);
     }
 
     public Duration getDuration() {
-        return duration;
+        return durationMinutes != NO_DURATION ? Duration.ofMinutes(durationMinutes) : null;
     }
 
     public void setDuration(Duration duration) {
-        this.duration = duration;
+        checkWritable();
+        this.durationMinutes = toDurationMinutes(duration);
+    }
+
+    public boolean hasStartTime() {
+        return startMinute != NO_START;
+    }
+
+    public long getStartEpochMinute() {
+        return startMinute;
+    }
+
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        checkWritable();
+        this.version = version;
     }
 
     public LocalDateTime getEndTime() {
-        if (startTime == null || duration == null) {
+        if (startMinute == NO_START || durationMinutes == NO_DURATION) {
             return null;
         }
-        return startTime.plus(duration);
+        return LocalDateTime.ofEpochSecond((startMinute + durationMinutes) * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Запрещает дальнейшие изменения задачи. Так помечаются копии, опубликованные в снимки,
+     * события и журнал отмены; изменить задачу можно, получив её {@link #copy()}.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    protected final void checkWritable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Задача №" + id + " доступна только для чтения");
+        }
+    }
+
+    public Task copy() {
+        Task copy = new Task(id, name, description, status, null, null);
+        copy.startMinute = startMinute;
+        copy.durationMinutes = durationMinutes;
+        copy.version = version;
+        return copy;
     }
 
     @Override
@@ -118,12 +181,13 @@ public class Task {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Task task = (Task) o;
-        return id == task.id;
+        // id 0 означает «ещё не сохранена»: такие задачи равны только самим себе
+        return id != 0 && id == task.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return id != 0 ? Objects.hash(id) : System.identityHashCode(this);
     }
 
     @Override
@@ -134,12 +198,31 @@ public class Task {
                         "Начало: %s\n" +
                         "Длительность: %d ч. %d мин.\n",
                 this.id, this.name, this.status, this.description,
-                startTime != null ? startTime.format(CustomDateTimeFormatter.DATE_TIME_FORMATTER) : "Не задано",
-                duration != null ? duration.toHours() : 0,
-                duration != null ? duration.toMinutesPart() : 0
+                hasStartTime() ? getStartTime().format(CustomDateTimeFormatter.DATE_TIME_FORMATTER) : "Не задано",
+                durationMinutes != NO_DURATION ? durationMinutes / 60 : 0,
+                durationMinutes != NO_DURATION ? durationMinutes % 60 : 0
         );
     }
 
+    private static String internName(String name) {
+        return StringPool.intern(Objects.requireNonNull(name, "Имя не может быть null").trim());
+    }
+
+    private static long toStartMinute(LocalDateTime startTime) {
+        return startTime != null ? Math.floorDiv(startTime.toEpochSecond(ZoneOffset.UTC), 60) : NO_START;
+    }
+
+    private static int toDurationMinutes(Duration duration) {
+        if (duration == null) {
+            return NO_DURATION;
+        }
+        long minutes = duration.toMinutes();
+        if (minutes <= NO_DURATION || minutes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Длительность слишком велика: " + duration);
+        }
+        return (int) minutes;
+    }
+
     private TaskType getTaskType() {
         if (this instanceof EpicTask) {
             return TaskType.EPIC;
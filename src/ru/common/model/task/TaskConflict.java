@@ -0,0 +1,39 @@
+package ru.common.model.task;
+
+import java.util.Objects;
+
+public class TaskConflict {
+    private final Task first;
+    private final Task second;
+
+    public TaskConflict(Task first, Task second) {
+        this.first = Objects.requireNonNull(first, "Задача не может быть null");
+        this.second = Objects.requireNonNull(second, "Задача не может быть null");
+    }
+
+    public Task getFirst() {
+        return first;
+    }
+
+    public Task getSecond() {
+        return second;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TaskConflict conflict = (TaskConflict) o;
+        return first.getId() == conflict.first.getId() && second.getId() == conflict.second.getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(first.getId(), second.getId());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Задача №%d пересекается с задачей №%d", first.getId(), second.getId());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.common.model.task;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Сводка по доске: число задач каждого типа и статуса, суммарная запланированная длительность
+ * задач и подзадач в минутах и число незавершённых задач и подзадач, срок которых уже прошёл.
+ */
+public class TaskStats {
+    private final Map<TaskType, Map<TaskStatus, Integer>> counts;
+    private final int total;
+    private final long scheduledMinutes;
+    private final int overdue;
+
+    public TaskStats(int[] counts, long scheduledMinutes, int overdue) {
+        TaskStatus[] statuses = TaskStatus.values();
+        if (counts.length != TaskType.values().length * statuses.length) {
+            throw new IllegalArgumentException("Некорректное число счётчиков: " + counts.length);
+        }
+        Map<TaskType, Map<TaskStatus, Integer>> byType = new EnumMap<>(TaskType.class);
+        int sum = 0;
+        for (TaskType type : TaskType.values()) {
+            Map<TaskStatus, Integer> byStatus = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : statuses) {
+                int count = counts[type.ordinal() * statuses.length + status.ordinal()];
+                byStatus.put(status, count);
+                sum += count;
+            }
+            byType.put(type, Collections.unmodifiableMap(byStatus));
+        }
+        this.counts = Collections.unmodifiableMap(byType);
+        this.total = sum;
+        this.scheduledMinutes = scheduledMinutes;
+        this.overdue = overdue;
+    }
+
+    public static TaskStats sum(Collection<TaskStats> parts) {
+        TaskStatus[] statuses = TaskStatus.values();
+        int[] counts = new int[TaskType.values().length * statuses.length];
+        long scheduledMinutes = 0;
+        int overdue = 0;
+        for (TaskStats part : parts) {
+            part.counts.forEach((type, byStatus) -> byStatus.forEach((status, count) ->
+                    counts[type.ordinal() * statuses.length + status.ordinal()] += count));
+            scheduledMinutes += part.scheduledMinutes;
+            overdue += part.overdue;
+        }
+        return new TaskStats(counts, scheduledMinutes, overdue);
+    }
+
+    public Map<TaskType, Map<TaskStatus, Integer>> getCounts() {
+        return counts;
+    }
+
+    public int getCount(TaskType type) {
+        return counts.get(type).values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public int getCount(TaskType type, TaskStatus status) {
+        return counts.get(type).get(status);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public long getScheduledMinutes() {
+        return scheduledMinutes;
+    }
+
+    public int getOverdue() {
+        return overdue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Всего задач: %d, запланировано минут: %d, просрочено: %d", total, scheduledMinutes, overdue);
+    }
+}
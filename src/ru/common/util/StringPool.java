@@ -0,0 +1,29 @@
+package ru.common.util;
+
+/**
+ * Ограниченный пул для повторяющихся строк (имён и описаний задач). Работает как кеш с вытеснением:
+ * строка занимает ячейку по хешу и вытесняет прежнюю, поэтому объём пула постоянен, а частые строки
+ * разделяются между задачами. Гонки при записи безопасны — в худшем случае строка не будет разделена.
+ */
+public final class StringPool {
+    private static final int SIZE = 1 << 12;
+    private static final int MAX_LENGTH = 256;
+    private static final String[] SLOTS = new String[SIZE];
+
+    private StringPool() {
+    }
+
+    public static String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+        String pooled = SLOTS[slot];
+        if (value.equals(pooled)) {
+            return pooled;
+        }
+        SLOTS[slot] = value;
+        return value;
+    }
+}
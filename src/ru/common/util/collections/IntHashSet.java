@@ -0,0 +1,188 @@
+package ru.common.util.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.function.IntConsumer;
+
+/**
+ * Множество int с открытой адресацией. Ноль служит маркером пустой ячейки, поэтому его наличие
+ * хранится отдельным флагом.
+ */
+public class IntHashSet {
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private boolean containsFree;
+    private int size;
+    private int threshold;
+    private int modCount;
+
+    public IntHashSet() {
+        this(4);
+    }
+
+    public IntHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public IntHashSet(IntHashSet other) {
+        keys = other.keys.clone();
+        containsFree = other.containsFree;
+        size = other.size;
+        threshold = other.threshold;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int key) {
+        if (key == FREE) {
+            return containsFree;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public boolean add(int key) {
+        if (key == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+        } else {
+            int mask = keys.length - 1;
+            int index = IntObjectMap.hash(key) & mask;
+            while (keys[index] != FREE) {
+                if (keys[index] == key) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+        }
+        modCount++;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(int key) {
+        if (key == FREE) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+            size--;
+            modCount++;
+            return true;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, FREE);
+        containsFree = false;
+        size = 0;
+        modCount++;
+    }
+
+    public void forEach(IntConsumer action) {
+        int expectedModCount = modCount;
+        if (containsFree) {
+            action.accept(FREE);
+        }
+        for (int key : keys) {
+            if (key != FREE) {
+                action.accept(key);
+            }
+        }
+        if (expectedModCount != modCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[size];
+        int position = 0;
+        if (containsFree) {
+            result[position++] = FREE;
+        }
+        for (int key : keys) {
+            if (key != FREE) {
+                result[position++] = key;
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = IntObjectMap.hash(key) & mask;
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int mask = keys.length - 1;
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = IntObjectMap.hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int key : oldKeys) {
+            if (key != FREE) {
+                int index = IntObjectMap.hash(key) & mask;
+                while (keys[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 4;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,311 @@
+package ru.common.util.collections;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Неизменяемое отображение int -> V на основе префиксного дерева с битовыми масками (32 ветви на узел).
+ * put и remove возвращают новую версию, копируя только путь от корня до изменённого листа,
+ * поэтому старые версии остаются валидными и делят с новой все нетронутые узлы.
+ * Обход идёт в порядке возрастания ключей; {@link #valuesAfter} спускается только по пути к границе
+ * и не трогает поддеревья с меньшими ключами. Значения null не допускаются.
+ */
+public final class PersistentIntMap<V> {
+    private static final int TOP_SHIFT = 30;
+    private static final int BITS = 5;
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int path = key ^ Integer.MIN_VALUE;
+        Node node = root;
+        int shift = TOP_SHIFT;
+        while (node != null) {
+            int bit = 1 << index(path, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object entry = node.entries[node.position(bit)];
+            if (entry instanceof Leaf leaf) {
+                return leaf.key == key ? (V) leaf.value : null;
+            }
+            node = (Node) entry;
+            shift -= BITS;
+        }
+        return null;
+    }
+
+    public PersistentIntMap<V> put(int key, V value) {
+        Objects.requireNonNull(value, "Значение не может быть null");
+        Leaf leaf = new Leaf(key, value);
+        if (root == null) {
+            return new PersistentIntMap<>(Node.single(index(leaf.path, TOP_SHIFT), leaf), 1);
+        }
+        boolean added = !containsKey(key);
+        Node newRoot = put(root, TOP_SHIFT, leaf);
+        return newRoot == root ? this : new PersistentIntMap<>(newRoot, added ? size + 1 : size);
+    }
+
+    public PersistentIntMap<V> remove(int key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        Object newRoot = remove(root, TOP_SHIFT, key ^ Integer.MIN_VALUE);
+        if (newRoot instanceof Leaf leaf) {
+            newRoot = Node.single(index(leaf.path, TOP_SHIFT), leaf);
+        }
+        return size == 1 ? empty() : new PersistentIntMap<>((Node) newRoot, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(IntObjectMap.IntObjectConsumer<? super V> action) {
+        if (root != null) {
+            root.forEach((IntObjectMap.IntObjectConsumer<Object>) action);
+        }
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    /**
+     * Значения с ключами строго больше {@code afterKey}, не более {@code limit} штук, по возрастанию ключей.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> valuesAfter(int afterKey, int limit) {
+        List<V> values = new ArrayList<>(Math.min(limit, size));
+        if (root != null && afterKey != Integer.MAX_VALUE && limit > 0) {
+            root.collectFrom(TOP_SHIFT, afterKey + 1, true, limit, (List<Object>) values);
+        }
+        return values;
+    }
+
+    public Iterator<V> iterator() {
+        return new ValueIterator<>(root);
+    }
+
+    public Stream<V> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    private static Node put(Node node, int shift, Leaf leaf) {
+        int bit = 1 << index(leaf.path, shift);
+        int position = node.position(bit);
+        if ((node.bitmap & bit) == 0) {
+            return node.insert(bit, position, leaf);
+        }
+        Object entry = node.entries[position];
+        if (entry instanceof Leaf existing) {
+            if (existing.key == leaf.key) {
+                return existing.value == leaf.value ? node : node.replace(position, leaf);
+            }
+            return node.replace(position, split(shift - BITS, existing, leaf));
+        }
+        Node child = (Node) entry;
+        Node newChild = put(child, shift - BITS, leaf);
+        return newChild == child ? node : node.replace(position, newChild);
+    }
+
+    private static Object remove(Node node, int shift, int path) {
+        int bit = 1 << index(path, shift);
+        int position = node.position(bit);
+        Object entry = node.entries[position];
+        Object replacement = entry instanceof Leaf ? null : remove((Node) entry, shift - BITS, path);
+        if (replacement == null) {
+            if (node.entries.length == 1) {
+                return null;
+            }
+            Node reduced = node.delete(bit, position);
+            return reduced.entries.length == 1 && reduced.entries[0] instanceof Leaf ? reduced.entries[0] : reduced;
+        }
+        if (replacement instanceof Leaf && node.entries.length == 1) {
+            return replacement;
+        }
+        return node.replace(position, replacement);
+    }
+
+    private static Node split(int shift, Leaf first, Leaf second) {
+        int firstIndex = index(first.path, shift);
+        int secondIndex = index(second.path, shift);
+        if (firstIndex == secondIndex) {
+            return Node.single(firstIndex, split(shift - BITS, first, second));
+        }
+        int bitmap = (1 << firstIndex) | (1 << secondIndex);
+        return firstIndex < secondIndex
+                ? new Node(bitmap, new Object[]{first, second})
+                : new Node(bitmap, new Object[]{second, first});
+    }
+
+    private static int index(int path, int shift) {
+        return shift == TOP_SHIFT ? path >>> TOP_SHIFT : (path >>> shift) & ((1 << BITS) - 1);
+    }
+
+    private static final class Leaf {
+        private final int key;
+        private final int path;
+        private final Object value;
+
+        private Leaf(int key, Object value) {
+            this.key = key;
+            this.path = key ^ Integer.MIN_VALUE;
+            this.value = value;
+        }
+    }
+
+    private static final class Node {
+        private final int bitmap;
+        private final Object[] entries;
+
+        private Node(int bitmap, Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+        }
+
+        private static Node single(int index, Object entry) {
+            return new Node(1 << index, new Object[]{entry});
+        }
+
+        private int position(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private Node insert(int bit, int position, Object entry) {
+            Object[] copy = new Object[entries.length + 1];
+            System.arraycopy(entries, 0, copy, 0, position);
+            copy[position] = entry;
+            System.arraycopy(entries, position, copy, position + 1, entries.length - position);
+            return new Node(bitmap | bit, copy);
+        }
+
+        private Node replace(int position, Object entry) {
+            Object[] copy = entries.clone();
+            copy[position] = entry;
+            return new Node(bitmap, copy);
+        }
+
+        private Node delete(int bit, int position) {
+            Object[] copy = new Object[entries.length - 1];
+            System.arraycopy(entries, 0, copy, 0, position);
+            System.arraycopy(entries, position + 1, copy, position, entries.length - position - 1);
+            return new Node(bitmap & ~bit, copy);
+        }
+
+        private boolean collectFrom(int shift, int fromKey, boolean bounded, int limit, List<Object> out) {
+            int first = 0;
+            boolean edge = false;
+            if (bounded) {
+                int bit = 1 << index(fromKey ^ Integer.MIN_VALUE, shift);
+                first = position(bit);
+                edge = (bitmap & bit) != 0;
+            }
+            for (int i = first; i < entries.length; i++) {
+                boolean boundedEntry = edge && i == first;
+                if (entries[i] instanceof Leaf leaf) {
+                    if (!boundedEntry || leaf.key >= fromKey) {
+                        out.add(leaf.value);
+                    }
+                } else if (!((Node) entries[i]).collectFrom(shift - BITS, fromKey, boundedEntry, limit, out)) {
+                    return false;
+                }
+                if (out.size() >= limit) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void forEach(IntObjectMap.IntObjectConsumer<Object> action) {
+            for (Object entry : entries) {
+                if (entry instanceof Leaf leaf) {
+                    action.accept(leaf.key, leaf.value);
+                } else {
+                    ((Node) entry).forEach(action);
+                }
+            }
+        }
+    }
+
+    private static final class ValueIterator<V> implements Iterator<V> {
+        private final Node[] nodes = new Node[TOP_SHIFT / BITS + 1];
+        private final int[] positions = new int[TOP_SHIFT / BITS + 1];
+        private int depth = -1;
+        private Object next;
+
+        private ValueIterator(Node root) {
+            if (root != null) {
+                nodes[0] = root;
+                depth = 0;
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Object value = next;
+            advance();
+            return (V) value;
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                if (positions[depth] == node.entries.length) {
+                    nodes[depth--] = null;
+                    continue;
+                }
+                Object entry = node.entries[positions[depth]++];
+                if (entry instanceof Leaf leaf) {
+                    next = leaf.value;
+                    return;
+                }
+                nodes[++depth] = (Node) entry;
+                positions[depth] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.common.util.collections;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Неизменяемое множество int поверх {@link PersistentIntMap}. add и remove возвращают новую версию,
+ * которая делит с прежней все нетронутые узлы, поэтому версию можно передавать копиям без клонирования.
+ * Обход идёт в порядке возрастания.
+ */
+public final class PersistentIntSet {
+    private static final PersistentIntSet EMPTY = new PersistentIntSet(PersistentIntMap.empty());
+
+    private final PersistentIntMap<Boolean> members;
+
+    private PersistentIntSet(PersistentIntMap<Boolean> members) {
+        this.members = members;
+    }
+
+    public static PersistentIntSet empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public boolean contains(int key) {
+        return members.containsKey(key);
+    }
+
+    public PersistentIntSet add(int key) {
+        PersistentIntMap<Boolean> updated = members.put(key, Boolean.TRUE);
+        return updated == members ? this : new PersistentIntSet(updated);
+    }
+
+    public PersistentIntSet remove(int key) {
+        PersistentIntMap<Boolean> updated = members.remove(key);
+        if (updated == members) {
+            return this;
+        }
+        return updated.isEmpty() ? EMPTY : new PersistentIntSet(updated);
+    }
+
+    public void forEach(IntConsumer action) {
+        members.forEach((key, value) -> action.accept(key));
+    }
+
+    public int[] toArray() {
+        int[] result = new int[members.size()];
+        int[] position = {0};
+        members.forEach((key, value) -> result[position[0]++] = key);
+        return result;
+    }
+}
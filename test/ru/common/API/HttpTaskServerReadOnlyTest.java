@@ -15,6 +15,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskServerReadOnlyTest {
@@ -59,4 +60,117 @@ public class HttpTaskServerReadOnlyTest {
         assertEquals(200, resp.statusCode());
         assertTrue(resp.body().contains("\"name\":\"A\"") || resp.body().contains("\"name\":\"B\""));
     }
+
+    @Test
+    void prioritized_withRange_returnsOnlyTasksInRange() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        manager.createTask(new Task("A", "D", base, Duration.ofHours(1)));
+        manager.createTask(new Task("B", "D", base.plusDays(1), Duration.ofHours(1)));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/prioritized?from=2024-01-02T00:00&to=2024-01-03T00:00"))
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        assertTrue(resp.body().contains("\"name\":\"B\""));
+        assertFalse(resp.body().contains("\"name\":\"A\""));
+    }
+
+    @Test
+    void prioritized_withInvalidDate_returns406() throws Exception {
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/prioritized?from=yesterday")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(406, resp.statusCode());
+    }
+
+    @Test
+    void freeSlot_returnsFirstGapLongEnough() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        manager.createTask(new Task("A", "D", base, Duration.ofHours(1)));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/prioritized/free-slot?after=2024-01-01T10:30&duration=45"))
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        assertTrue(resp.body().contains("\"startTime\":\"2024-01-01T11:00:00\""));
+        assertTrue(resp.body().contains("\"endTime\":\"2024-01-01T11:45:00\""));
+    }
+
+    @Test
+    void freeSlot_pastMaxDateTime_returns406() throws Exception {
+        HttpResponse<String> late = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/prioritized/free-slot?after=%2B999999999-12-31T23:59&duration=10"))
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(406, late.statusCode());
+        HttpResponse<String> huge = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/prioritized/free-slot?after=2024-01-01T10:00&duration=" + Long.MAX_VALUE))
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(406, huge.statusCode());
+    }
+
+    @Test
+    void conflicts_returnsOverlappingPairs() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task a = manager.createTask(new Task("A", "D", base, Duration.ofHours(1)));
+        Task b = manager.createTask(new Task("B", "D", base.plusHours(2), Duration.ofHours(1)));
+        b.setStartTime(base.plusMinutes(30));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/prioritized/conflicts")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        assertTrue(resp.body().contains("\"first\":{\"id\":" + a.getId()));
+        assertTrue(resp.body().contains("\"second\":{\"id\":" + b.getId()));
+    }
+
+    @Test
+    void search_returnsRankedIds() throws Exception {
+        Task match = manager.createTask(new Task("Report", "Quarterly report", null, null));
+        manager.createTask(new Task("Other", "D", null, null));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/search?q=report")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        assertEquals("[" + match.getId() + "]", resp.body());
+    }
+
+    @Test
+    void autocomplete_returnsMatchingNames() throws Exception {
+        manager.createTask(new Task("Plan sprint", "D", null, null));
+        manager.createTask(new Task("Deploy", "D", null, null));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/search/autocomplete?prefix=pl&limit=5")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        assertEquals("[\"Plan sprint\"]", resp.body());
+    }
+
+    @Test
+    void stats_returnsCountersAtGivenMoment() throws Exception {
+        manager.createTask(new Task("A", "D", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1)));
+        manager.createTask(new Task("B", "D", null, null));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/stats?at=2024-01-01T12:00:00")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        assertTrue(resp.body().contains("\"TASK\":{\"NEW\":2,\"IN_PROGRESS\":0,\"DONE\":0}"));
+        assertTrue(resp.body().contains("\"total\":2"));
+        assertTrue(resp.body().contains("\"scheduledMinutes\":60"));
+        assertTrue(resp.body().contains("\"overdue\":1"));
+        HttpResponse<String> invalid = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/stats?at=yesterday")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(406, invalid.statusCode());
+    }
 }
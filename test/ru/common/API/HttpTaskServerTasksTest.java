@@ -6,7 +6,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.common.manager.task.InMemoryTaskManager;
 import ru.common.manager.task.TaskManager;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
 import ru.common.model.task.Task;
+import ru.common.model.task.TaskStatus;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -14,8 +17,12 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskServerTasksTest {
     private TaskManager manager;
@@ -103,4 +110,131 @@ public class HttpTaskServerTasksTest {
         assertEquals(200, resp.statusCode());
         assertEquals(0, manager.getAllTasks().size());
     }
+
+    @Test
+    void getTasks_streamsAllTasksOrderedById() throws Exception {
+        Task t1 = manager.createTask(new Task("A", "D", null, null));
+        Task t2 = manager.createTask(new Task("B", "D", null, null));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        Task[] tasks = gson.fromJson(resp.body(), Task[].class);
+        assertEquals(2, tasks.length);
+        assertEquals(t1.getId(), tasks[0].getId());
+        assertEquals(t2.getId(), tasks[1].getId());
+    }
+
+    @Test
+    void getTasks_withAfterAndLimit_returnsPage() throws Exception {
+        Task t1 = manager.createTask(new Task("A", "D", null, null));
+        Task t2 = manager.createTask(new Task("B", "D", null, null));
+        Task t3 = manager.createTask(new Task("C", "D", null, null));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?after=" + t1.getId() + "&limit=1")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        Task[] page = gson.fromJson(resp.body(), Task[].class);
+        assertEquals(1, page.length);
+        assertEquals(t2.getId(), page[0].getId());
+        resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?after=" + t2.getId() + "&limit=5")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        page = gson.fromJson(resp.body(), Task[].class);
+        assertEquals(1, page.length);
+        assertEquals(t3.getId(), page[0].getId());
+    }
+
+    @Test
+    void getTasks_withStatus_returnsOnlyMatchingTasks() throws Exception {
+        Task done = manager.createTask(new Task("A", "D", null, null));
+        manager.createTask(new Task("B", "D", null, null));
+        done.setStatus(TaskStatus.DONE);
+        manager.updateTask(done);
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?status=done")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        Task[] tasks = gson.fromJson(resp.body(), Task[].class);
+        assertEquals(1, tasks.length);
+        assertEquals(done.getId(), tasks[0].getId());
+    }
+
+    @Test
+    void getByStatus_returnsOnlyEntitiesOfRequestedType() throws Exception {
+        Task task = manager.createTask(new Task("Task", "D", null, null));
+        EpicTask epic = manager.createEpic(new EpicTask("Epic", "D"));
+        SubTask subTask = manager.createSubTask(new SubTask("SubTask", "D", epic.getId()));
+        assertEquals(List.of(task.getId()), idsByStatus("/tasks?status=new"));
+        assertEquals(List.of(epic.getId()), idsByStatus("/epics?status=new"));
+        assertEquals(List.of(subTask.getId()), idsByStatus("/subtasks?status=new"));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?status=unknown")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(406, resp.statusCode());
+    }
+
+    private List<Integer> idsByStatus(String path) throws Exception {
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        return Arrays.stream(gson.fromJson(resp.body(), Task[].class)).map(Task::getId).toList();
+    }
+
+    @Test
+    void getTaskById_returnsVersionAsETag() throws Exception {
+        Task t = manager.createTask(new Task("T", "D", null, null));
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/" + t.getId())).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(200, resp.statusCode());
+        assertEquals("\"1\"", resp.headers().firstValue("ETag").orElse(null));
+    }
+
+    @Test
+    void updateTask_withStaleIfMatch_returns412() throws Exception {
+        Task t = manager.createTask(new Task("T", "D", null, null));
+        Task update = t.copy();
+        update.setName("First");
+        HttpResponse<String> first = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                        .header("If-Match", "\"1\"")
+                        .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(update)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(201, first.statusCode());
+        update.setName("Second");
+        HttpResponse<String> second = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                        .header("If-Match", "\"1\"")
+                        .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(update)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertEquals(412, second.statusCode());
+        assertEquals("First", manager.getTaskById(t.getId()).getName());
+        assertEquals(2, manager.getTaskById(t.getId()).getVersion());
+    }
+
+    @Test
+    void taskJson_shouldKeepTimeFieldsAfterStatus() {
+        Task task = new Task("T", "D", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(90));
+        String json = gson.toJson(task);
+        assertTrue(json.contains("\"status\":\"NEW\",\"startTime\":\"2024-01-01T10:00:00\",\"duration\":\"1h 30m\""));
+        Task parsed = gson.fromJson(json, Task.class);
+        assertEquals(task.getStartTime(), parsed.getStartTime());
+        assertEquals(task.getDuration(), parsed.getDuration());
+        Task withoutTime = gson.fromJson("{\"id\":5,\"name\":\"N\",\"status\":\"NEW\"}", Task.class);
+        assertNull(withoutTime.getStartTime());
+        assertNull(withoutTime.getDuration());
+    }
 }
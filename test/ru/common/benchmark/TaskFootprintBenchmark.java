@@ -0,0 +1,86 @@
+package ru.common.benchmark;
+
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskStatus;
+
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+/**
+ * Занимаемая память на задачу: прежняя раскладка (LocalDateTime, Duration и отдельные строки)
+ * против компактной (минуты в примитивных полях и общие повторяющиеся строки).
+ * Запуск: собрать тестовые классы и выполнить main, лучше с фиксированной кучей (-Xms2g -Xmx2g).
+ */
+public class TaskFootprintBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : SIZE;
+        System.out.printf("legacy:  %d bytes/task%n", measure(size, TaskFootprintBenchmark::legacyTasks));
+        System.out.printf("compact: %d bytes/task%n", measure(size, TaskFootprintBenchmark::compactTasks));
+    }
+
+    private static Object[] legacyTasks(int size) {
+        Object[] tasks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            tasks[i] = new LegacyTask(i, name(i), description(), BASE.plusMinutes(i * 30L), Duration.ofMinutes(30));
+        }
+        return tasks;
+    }
+
+    private static Object[] compactTasks(int size) {
+        Object[] tasks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Task task = new Task(name(i), description(), BASE.plusMinutes(i * 30L), Duration.ofMinutes(30));
+            task.setId(i);
+            tasks[i] = task;
+        }
+        return tasks;
+    }
+
+    // Новые экземпляры строк — как после разбора JSON или CSV.
+    private static String name(int i) {
+        return "Задача " + (i % 100);
+    }
+
+    private static String description() {
+        return new String("Регулярная задача из шаблона");
+    }
+
+    private static long measure(int size, IntFunction<Object[]> factory) {
+        long before = usedMemory();
+        Object[] tasks = factory.apply(size);
+        long after = usedMemory();
+        Reference.reachabilityFence(tasks);
+        return (after - before) / size;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class LegacyTask {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final TaskStatus status = TaskStatus.NEW;
+        private final LocalDateTime startTime;
+        private final Duration duration;
+        private long version;
+
+        private LegacyTask(int id, String name, String description, LocalDateTime startTime, Duration duration) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.startTime = startTime;
+            this.duration = duration;
+        }
+    }
+}
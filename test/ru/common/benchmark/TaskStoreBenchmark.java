@@ -0,0 +1,99 @@
+package ru.common.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.common.model.task.Task;
+import ru.common.util.collections.IntObjectMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение хранилища задач на HashMap<Integer, Task> и IntObjectMap<Task>.
+ * Запуск: собрать тестовые классы и выполнить org.openjdk.jmh.Main TaskStoreBenchmark.
+ * Память на запись меряет {@link TaskStoreFootprintBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskStoreBenchmark {
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Map<Integer, Task> hashMap;
+    private IntObjectMap<Task> intObjectMap;
+    private int[] lookupIds;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        hashMap = new HashMap<>();
+        intObjectMap = new IntObjectMap<>();
+        for (int id = 1; id <= size; id++) {
+            Task task = new Task("Task " + id, "Description", null, null);
+            task.setId(id);
+            hashMap.put(id, task);
+            intObjectMap.put(id, task);
+        }
+        Random random = new Random(42);
+        lookupIds = new int[4096];
+        for (int i = 0; i < lookupIds.length; i++) {
+            lookupIds[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Task hashMapGet() {
+        return hashMap.get(nextLookupId());
+    }
+
+    @Benchmark
+    public Task intObjectMapGet() {
+        return intObjectMap.get(nextLookupId());
+    }
+
+    @Benchmark
+    public void hashMapIterate(Blackhole blackhole) {
+        for (Task task : hashMap.values()) {
+            blackhole.consume(task);
+        }
+    }
+
+    @Benchmark
+    public void intObjectMapIterate(Blackhole blackhole) {
+        for (Task task : intObjectMap.values()) {
+            blackhole.consume(task);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10000)
+    public Object hashMapFill() {
+        Map<Integer, Task> map = new HashMap<>();
+        for (int id = 1; id <= 10000; id++) {
+            map.put(id, hashMap.get(id));
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10000)
+    public Object intObjectMapFill() {
+        IntObjectMap<Task> map = new IntObjectMap<>();
+        for (int id = 1; id <= 10000; id++) {
+            map.put(id, intObjectMap.get(id));
+        }
+        return map;
+    }
+
+    private int nextLookupId() {
+        int id = lookupIds[cursor];
+        cursor = (cursor + 1) & (lookupIds.length - 1);
+        return id;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.common.benchmark;
+
+import ru.common.model.task.Task;
+import ru.common.util.collections.IntObjectMap;
+
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Память самого хранилища на запись: HashMap<Integer, Task> против IntObjectMap<Task>.
+ * Задачи создаются заранее и общие для обоих вариантов, поэтому в результат входят только
+ * таблицы, узлы и ключи. Запуск: собрать тестовые классы и выполнить main,
+ * лучше с фиксированной кучей (-Xms2g -Xmx2g).
+ */
+public class TaskStoreFootprintBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : SIZE;
+        Task[] tasks = new Task[size + 1];
+        for (int id = 1; id <= size; id++) {
+            tasks[id] = new Task("Task " + id, "Description", null, null);
+            tasks[id].setId(id);
+        }
+        System.out.printf("HashMap:      %d bytes/entry%n", measure(size, tasks, TaskStoreFootprintBenchmark::hashMap));
+        System.out.printf("IntObjectMap: %d bytes/entry%n", measure(size, tasks, TaskStoreFootprintBenchmark::intObjectMap));
+        Reference.reachabilityFence(tasks);
+    }
+
+    private static Object hashMap(Task[] tasks) {
+        Map<Integer, Task> map = new HashMap<>();
+        for (int id = 1; id < tasks.length; id++) {
+            map.put(id, tasks[id]);
+        }
+        return map;
+    }
+
+    private static Object intObjectMap(Task[] tasks) {
+        IntObjectMap<Task> map = new IntObjectMap<>();
+        for (int id = 1; id < tasks.length; id++) {
+            map.put(id, tasks[id]);
+        }
+        return map;
+    }
+
+    // Медиана нескольких замеров: единичный замер заметно плавает из-за сборщика мусора.
+    private static long measure(int size, Task[] tasks, Function<Task[], Object> factory) {
+        long[] samples = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = usedMemory();
+            Object store = factory.apply(tasks);
+            long after = usedMemory();
+            Reference.reachabilityFence(store);
+            samples[round] = (after - before) / size;
+        }
+        Arrays.sort(samples);
+        return samples[ROUNDS / 2];
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
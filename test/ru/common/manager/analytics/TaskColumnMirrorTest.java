@@ -0,0 +1,75 @@
+package ru.common.manager.analytics;
+import org.junit.jupiter.api.Test;
+import ru.common.manager.task.InMemoryTaskManager;
+import ru.common.model.task.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+import static org.junit.jupiter.api.Assertions.*;
+public class TaskColumnMirrorTest {
+    @Test
+    void sync_shouldFollowCreatesUpdatesAndRemovals() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        Task existing = manager.createTask(new Task("Existing", null, LocalDateTime.of(2024, 1, 1, 9, 0), Duration.ofMinutes(30)));
+        TaskColumnMirror mirror = new TaskColumnMirror(manager);
+        assertEquals(1, mirror.getStore().size());
+        EpicTask epic = manager.createEpic(new EpicTask("Epic"));
+        SubTask first = new SubTask("First", epic.getId());
+        first.setStatus(TaskStatus.DONE);
+        manager.createSubTask(first);
+        manager.createSubTask(new SubTask("Second", epic.getId()));
+        manager.removeTask(existing);
+        TaskColumnStore store = mirror.sync();
+        assertEquals(3, store.size());
+        assertFalse(store.contains(existing.getId()));
+        assertEquals(1, store.count(TaskType.EPIC, TaskStatus.IN_PROGRESS));
+        Map<TaskStatus, Integer> counts = store.statusCountsByEpic().get(epic.getId());
+        assertEquals(1, counts.get(TaskStatus.DONE));
+        assertEquals(1, counts.get(TaskStatus.NEW));
+        assertEquals(0, counts.get(TaskStatus.IN_PROGRESS));
+        manager.removeEpic(epic);
+        assertEquals(0, mirror.sync().size());
+    }
+    @Test
+    void scheduledMinutesByDay_shouldSplitIntervalsAtMidnightAndSkipEpics() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        manager.createTask(new Task("Night", null, LocalDateTime.of(2024, 1, 1, 23, 0), Duration.ofMinutes(90)));
+        manager.createTask(new Task("Morning", null, LocalDateTime.of(2024, 1, 2, 9, 0), Duration.ofMinutes(60)));
+        manager.createTask(new Task("Unscheduled", null, null));
+        EpicTask epic = manager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = new SubTask("Sub", epic.getId());
+        subTask.setStartTime(LocalDateTime.of(2024, 1, 1, 10, 0));
+        subTask.setDuration(Duration.ofMinutes(15));
+        manager.createSubTask(subTask);
+        TaskColumnStore store = new TaskColumnMirror(manager).getStore();
+        SortedMap<LocalDate, Long> byDay = store.scheduledMinutesByDay();
+        assertEquals(Map.of(LocalDate.of(2024, 1, 1), 75L, LocalDate.of(2024, 1, 2), 90L), byDay);
+        assertEquals(165, store.totalScheduledMinutes());
+    }
+    @Test
+    void aggregates_shouldMatchSequentialCountsOnLargeStore() {
+        TaskColumnStore store = new TaskColumnStore();
+        int size = 200_000;
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < size; i++) {
+            SubTask subTask = new SubTask("Sub", 1 + i % 10);
+            subTask.setId(100 + i);
+            subTask.setStatus(TaskStatus.values()[i % 3]);
+            subTask.setStartTime(base.plusMinutes(i * 60L));
+            subTask.setDuration(Duration.ofMinutes(30));
+            store.put(subTask);
+        }
+        store.remove(100);
+        assertEquals(size - 1, store.size());
+        assertEquals((size - 1) * 30L, store.totalScheduledMinutes());
+        assertEquals((size - 1) * 30L, store.scheduledMinutesByDay().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(24 * 30L, store.scheduledMinutesByDay().get(LocalDate.of(2024, 1, 2)));
+        Map<Integer, Map<TaskStatus, Integer>> byEpic = store.statusCountsByEpic();
+        assertEquals(10, byEpic.size());
+        int total = byEpic.values().stream().flatMap(counts -> counts.values().stream()).mapToInt(Integer::intValue).sum();
+        assertEquals(size - 1, total);
+        assertEquals((size + 29) / 30 - 1, byEpic.get(1).get(TaskStatus.NEW));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.common.manager.event;
+import org.junit.jupiter.api.Test;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskType;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+public class TaskEventRingTest {
+    @Test
+    void subscribe_shouldReceiveOnlyEventsPublishedAfterSubscribing() {
+        TaskEventRing ring = new TaskEventRing(8);
+        Task task = new Task("Task", null, null);
+        ring.publish(1, TaskEventType.CREATED, TaskType.TASK, task);
+        TaskEventSubscription subscription = ring.subscribe();
+        assertNull(subscription.poll());
+        ring.publish(2, TaskEventType.UPDATED, TaskType.TASK, task);
+        TaskEvent event = subscription.poll();
+        assertEquals(TaskEventType.UPDATED, event.getType());
+        assertEquals(2, event.getVersion());
+        assertEquals(task.getId(), event.getTaskId());
+        assertNull(subscription.poll());
+    }
+    @Test
+    void slowSubscriber_shouldSkipOverwrittenEventsAndCountThem() {
+        TaskEventRing ring = new TaskEventRing(4);
+        TaskEventSubscription slow = ring.subscribe();
+        TaskEventSubscription fast = ring.subscribe();
+        Task task = new Task("Task", null, null);
+        for (int version = 1; version <= 10; version++) {
+            ring.publish(version, TaskEventType.UPDATED, TaskType.TASK, task);
+            assertEquals(version, fast.poll().getVersion());
+        }
+        assertEquals(10, slow.getLag());
+        List<TaskEvent> events = slow.drain(100);
+        assertEquals(List.of(7L, 8L, 9L, 10L), events.stream().map(TaskEvent::getVersion).toList());
+        assertEquals(6, slow.getMissedEvents());
+        assertTrue(slow.hasMissedEvents());
+        assertFalse(fast.hasMissedEvents());
+        assertEquals(0, slow.getLag());
+    }
+    @Test
+    void constructor_shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(8, new TaskEventRing(5).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new TaskEventRing(0));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.common.manager.task;
+import org.junit.jupiter.api.Test;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskStats;
+import ru.common.model.task.TaskStatus;
+import ru.common.model.task.TaskType;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+public class BoardStatsTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    @Test
+    void toStats_shouldNotDependOnEarlierQueries() {
+        BoardStats stats = new BoardStats();
+        stats.add(task(1, 0, 60, TaskStatus.NEW));
+        stats.add(task(2, 120, 60, TaskStatus.IN_PROGRESS));
+        stats.add(task(3, 120, 60, TaskStatus.DONE));
+        assertEquals(2, stats.toStats(BASE.plusDays(1)).getOverdue());
+        assertEquals(0, stats.toStats(BASE.plusMinutes(60)).getOverdue());
+        assertEquals(1, stats.toStats(BASE.plusMinutes(60).plusSeconds(1)).getOverdue());
+        assertEquals(2, stats.toStats(BASE.plusMinutes(181)).getOverdue());
+        TaskStats total = stats.toStats(BASE);
+        assertEquals(0, total.getOverdue());
+        assertEquals(1, total.getCount(TaskType.TASK, TaskStatus.DONE));
+        assertEquals(180, total.getScheduledMinutes());
+    }
+    @Test
+    void randomOperations_shouldMatchFullScan() {
+        Random random = new Random(23);
+        BoardStats stats = new BoardStats();
+        List<Task> live = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            if (!live.isEmpty() && random.nextInt(3) == 0) {
+                stats.remove(live.remove(random.nextInt(live.size())));
+            } else {
+                TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+                Task task = task(i + 1, random.nextInt(500), random.nextInt(30), status);
+                stats.add(task);
+                live.add(task);
+            }
+            LocalDateTime now = BASE.plusMinutes(random.nextInt(600)).plusSeconds(random.nextInt(2) * 30);
+            long expected = live.stream()
+                    .filter(task -> task.getStatus() != TaskStatus.DONE && task.getEndTime().isBefore(now))
+                    .count();
+            assertEquals(expected, stats.toStats(now).getOverdue());
+        }
+    }
+    private static Task task(int id, int startMinute, int durationMinutes, TaskStatus status) {
+        Task task = new Task("Task " + id, BASE.plusMinutes(startMinute), Duration.ofMinutes(durationMinutes));
+        task.setId(id);
+        task.setStatus(status);
+        return task;
+    }
+}
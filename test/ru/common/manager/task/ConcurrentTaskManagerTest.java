@@ -0,0 +1,78 @@
+package ru.common.manager.task;
+import org.junit.jupiter.api.Test;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+public class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    @Override
+    protected ConcurrentTaskManager createTaskManager() {
+        return new ConcurrentTaskManager(new InMemoryTaskManager());
+    }
+    @Test
+    void managersGetDefaultConcurrentReturnsConcurrentManager() {
+        assertInstanceOf(ConcurrentTaskManager.class, Managers.getDefaultConcurrent());
+    }
+    @Test
+    void parallelCreateTask_inSameSlot_shouldAcceptExactlyOnePerSlot() throws Exception {
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+        int slots = 50;
+        int attemptsPerSlot = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int slot = 0; slot < slots; slot++) {
+            for (int attempt = 0; attempt < attemptsPerSlot; attempt++) {
+                Task task = new Task("Slot task", "Description", baseTime.plusHours(slot), Duration.ofMinutes(45));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        taskManager.createTask(task);
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(slots, taskManager.getAllTasks().size());
+        assertEquals(slots, taskManager.getPrioritizedTasks().size());
+        assertEquals(slots * (attemptsPerSlot - 1), rejected.get());
+    }
+    @Test
+    void parallelReadsAndWrites_shouldKeepEpicConsistent() throws Exception {
+        EpicTask epic = new EpicTask("Epic");
+        taskManager.createEpic(epic);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            SubTask subTask = new SubTask("Sub", epic.getId());
+            futures.add(executor.submit(() -> {
+                taskManager.createSubTask(subTask);
+                subTask.setStatus(TaskStatus.DONE);
+                taskManager.updateSubTask(subTask);
+            }));
+            futures.add(executor.submit(() -> taskManager.getSubTasksByEpicId(epic.getId()).size()));
+            futures.add(executor.submit(() -> taskManager.getAllSubTasks().size()));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(200, taskManager.getSubTasksByEpicId(epic.getId()).size());
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+    }
+}
@@ -3,6 +3,9 @@ package ru.common.manager.task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.common.model.task.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class EpicStatusCalculationTest {
@@ -167,4 +170,100 @@ public class EpicStatusCalculationTest {
         retrievedEpic = taskManager.getEpicById(epic.getId());
         assertEquals(TaskStatus.NEW, retrievedEpic.getStatus());
     }
+    @Test
+    void getSubTasksByEpicId_shouldReturnOnlyOwnSubTasks() {
+        EpicTask epic1 = new EpicTask("Epic 1");
+        EpicTask epic2 = new EpicTask("Epic 2");
+        taskManager.createEpic(epic1);
+        taskManager.createEpic(epic2);
+        SubTask subTask1 = new SubTask("SubTask 1", epic1.getId());
+        SubTask subTask2 = new SubTask("SubTask 2", epic2.getId());
+        SubTask subTask3 = new SubTask("SubTask 3", epic1.getId());
+        taskManager.createSubTask(subTask1);
+        taskManager.createSubTask(subTask2);
+        taskManager.createSubTask(subTask3);
+        List<SubTask> epic1SubTasks = taskManager.getSubTasksByEpicId(epic1.getId());
+        assertEquals(2, epic1SubTasks.size());
+        assertTrue(epic1SubTasks.containsAll(List.of(subTask1, subTask3)));
+        assertEquals(List.of(subTask2), taskManager.getSubTasksByEpicId(epic2.getId()));
+        assertTrue(taskManager.getSubTasksByEpicId(-1).isEmpty());
+    }
+    @Test
+    void updateEpic_withNewInstance_shouldKeepSubTasks() {
+        EpicTask epic = new EpicTask("Test Epic");
+        taskManager.createEpic(epic);
+        SubTask subTask = new SubTask("SubTask", epic.getId());
+        taskManager.createSubTask(subTask);
+        EpicTask replacement = new EpicTask("Renamed Epic");
+        replacement.setId(epic.getId());
+        taskManager.updateEpic(replacement);
+        assertEquals(List.of(subTask.getId()), replacement.getSubTaskIds());
+        assertEquals(List.of(subTask), taskManager.getSubTasksByEpicId(epic.getId()));
+    }
+    @Test
+    void updateSubTask_withNewParent_shouldMoveBetweenEpics() {
+        EpicTask epic1 = new EpicTask("Epic 1");
+        EpicTask epic2 = new EpicTask("Epic 2");
+        taskManager.createEpic(epic1);
+        taskManager.createEpic(epic2);
+        SubTask subTask = new SubTask("SubTask", epic1.getId());
+        taskManager.createSubTask(subTask);
+        SubTask moved = new SubTask("SubTask", epic2.getId());
+        moved.setId(subTask.getId());
+        moved.setStatus(TaskStatus.DONE);
+        taskManager.updateSubTask(moved);
+        assertTrue(taskManager.getSubTasksByEpicId(epic1.getId()).isEmpty());
+        assertFalse(epic1.getSubTaskIds().contains(subTask.getId()));
+        assertEquals(TaskStatus.NEW, epic1.getStatus());
+        assertEquals(List.of(moved), taskManager.getSubTasksByEpicId(epic2.getId()));
+        assertEquals(TaskStatus.DONE, epic2.getStatus());
+    }
+    @Test
+    void epicTimeFields_subTaskRescheduledAndRemoved_shouldRecalculate() {
+        EpicTask epic = new EpicTask("Test Epic");
+        taskManager.createEpic(epic);
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        SubTask subTask1 = new SubTask("SubTask 1", epic.getId());
+        subTask1.setStartTime(baseTime);
+        subTask1.setDuration(Duration.ofMinutes(30));
+        SubTask subTask2 = new SubTask("SubTask 2", epic.getId());
+        subTask2.setStartTime(baseTime.plusHours(2));
+        subTask2.setDuration(Duration.ofMinutes(60));
+        taskManager.createSubTask(subTask1);
+        taskManager.createSubTask(subTask2);
+        assertEquals(baseTime, epic.getStartTime());
+        assertEquals(baseTime.plusHours(3), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(90), epic.getDuration());
+        subTask1.setStartTime(baseTime.plusHours(4));
+        taskManager.updateSubTask(subTask1);
+        assertEquals(baseTime.plusHours(2), epic.getStartTime());
+        assertEquals(baseTime.plusHours(4).plusMinutes(30), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(90), epic.getDuration());
+        taskManager.removeSubTask(subTask1.getId());
+        assertEquals(baseTime.plusHours(2), epic.getStartTime());
+        assertEquals(baseTime.plusHours(3), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(60), epic.getDuration());
+        taskManager.removeAllSubTasks();
+        assertNull(epic.getStartTime());
+        assertNull(epic.getEndTime());
+        assertEquals(Duration.ZERO, epic.getDuration());
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+    }
+    @Test
+    void epicAggregates_subTasksWithSameStartTime_shouldBeCountedSeparately() {
+        EpicTask epic = new EpicTask("Test Epic");
+        taskManager.createEpic(epic);
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        SubTask subTask1 = new SubTask("SubTask 1", epic.getId());
+        subTask1.setStartTime(baseTime);
+        subTask1.setDuration(Duration.ZERO);
+        SubTask subTask2 = new SubTask("SubTask 2", epic.getId());
+        subTask2.setStartTime(baseTime);
+        subTask2.setDuration(Duration.ZERO);
+        taskManager.createSubTask(subTask1);
+        taskManager.createSubTask(subTask2);
+        taskManager.removeSubTask(subTask1.getId());
+        assertEquals(baseTime, epic.getStartTime());
+        assertEquals(baseTime, epic.getEndTime());
+    }
 }
\ No newline at end of file
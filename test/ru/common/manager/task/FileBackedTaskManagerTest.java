@@ -3,6 +3,7 @@ import org.junit.jupiter.api.Test;
 import ru.common.model.task.EpicTask;
 import ru.common.model.task.SubTask;
 import ru.common.model.task.Task;
+import ru.common.model.task.TaskStats;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -134,4 +135,103 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         assertNull(loadedTask.getDuration());
         assertNull(loadedTask.getEndTime());
     }
-}
\ No newline at end of file
+    @Test
+    void reload_newTaskWithCollidingProvisionalId_shouldGetFreshId() throws IOException {
+        Path tmp = Files.createTempFile("kanban-ids", ".csv");
+        File file = tmp.toFile();
+        file.deleteOnExit();
+        Files.writeString(tmp, "id,type,name,status,description,epic,startTime,duration\n"
+                + "1000000,TASK,Loaded,NEW,Description,,,\n", StandardCharsets.UTF_8);
+        TaskManager manager = Managers.getFileBackedTasksManager(file);
+        Task loaded = manager.getTaskById(1000000);
+        Task created = new Task("Created", "Description", null, null);
+        created.setId(1000000);
+        manager.createTask(created);
+        assertNotEquals(1000000, created.getId());
+        assertTrue(created.getId() > 1000000);
+        assertSame(loaded, manager.getTaskById(1000000));
+        assertSame(created, manager.getTaskById(created.getId()));
+    }
+    @Test
+    void idHighWaterMark_shouldSurviveReloadAfterRemovingNewestTask() throws IOException {
+        Path tmp = Files.createTempFile("kanban-high-water", ".csv");
+        File file = tmp.toFile();
+        file.deleteOnExit();
+        FileBackedTaskManager manager = (FileBackedTaskManager) Managers.getFileBackedTasksManager(file);
+        Task kept = new Task("Kept", "Description", null, null);
+        Task removed = new Task("Removed", "Description", null, null);
+        manager.createTask(kept);
+        manager.createTask(removed);
+        int removedId = removed.getId();
+        manager.removeTask(removed);
+        FileBackedTaskManager loaded = (FileBackedTaskManager) Managers.getFileBackedTasksManager(file);
+        assertEquals(removedId, loaded.getIdAllocator().getHighWaterMark());
+        Task reused = new Task("Reused", "Description", null, null);
+        reused.setId(0);
+        loaded.createTask(reused);
+        assertEquals(removedId + 1, reused.getId());
+    }
+    @Test
+    void createTasks_shouldSaveFileOnce() throws IOException {
+        Path tmp = Files.createTempFile("kanban-bulk", ".csv");
+        File file = tmp.toFile();
+        file.deleteOnExit();
+        int[] saves = new int[1];
+        FileBackedTaskManager manager = new FileBackedTaskManager(file) {
+            @Override
+            public void save() {
+                saves[0]++;
+                super.save();
+            }
+        };
+        manager.createTasks(List.of(
+                new Task("Task 1", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(60)),
+                new Task("Task 2", "Description", LocalDateTime.of(2024, 1, 1, 11, 0), Duration.ofMinutes(60)),
+                new Task("Task 3", "Description", null, null)));
+        assertEquals(1, saves[0]);
+        TaskManager loaded = Managers.getFileBackedTasksManager(file);
+        assertEquals(3, loaded.getAllTasks().size());
+    }
+    @Test
+    void runBatch_shouldWriteFileOnlyAfterBatch() throws IOException {
+        Path tmp = Files.createTempFile("kanban-batch", ".csv");
+        File file = tmp.toFile();
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        manager.runBatch(() -> {
+            manager.createTask(new Task("Task 1", "Description", null, null));
+            manager.createTask(new Task("Task 2", "Description", null, null));
+            assertEquals(0, Managers.getFileBackedTasksManager(file).getAllTasks().size());
+        });
+        assertEquals(2, Managers.getFileBackedTasksManager(file).getAllTasks().size());
+    }
+    @Test
+    void undo_shouldBePersistedAndLoadedStateShouldNotBeUndoable() throws IOException {
+        Path tmp = Files.createTempFile("kanban-undo", ".csv");
+        File file = tmp.toFile();
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        manager.createTask(new Task("Kept", "Description", null, null));
+        manager.createTask(new Task("Undone", "Description", null, null));
+        manager.undo();
+        FileBackedTaskManager loaded = new FileBackedTaskManager(file);
+        assertEquals(1, loaded.getAllTasks().size());
+        assertFalse(loaded.canUndo());
+    }
+    @Test
+    void load_shouldRestoreStats() throws IOException {
+        Path tmp = Files.createTempFile("kanban-stats", ".csv");
+        File file = tmp.toFile();
+        file.deleteOnExit();
+        TaskManager writer = Managers.getFileBackedTasksManager(file);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        writer.createTask(new Task("Task", "Desc", start, Duration.ofMinutes(30)));
+        EpicTask epic = writer.createEpic(new EpicTask("Epic", "Desc"));
+        writer.createSubTask(new SubTask("Sub", "Desc", epic.getId()));
+        TaskStats expected = writer.getStats(start.plusHours(1));
+        TaskStats loaded = Managers.getFileBackedTasksManager(file).getStats(start.plusHours(1));
+        assertEquals(expected.getCounts(), loaded.getCounts());
+        assertEquals(30, loaded.getScheduledMinutes());
+        assertEquals(1, loaded.getOverdue());
+    }
+}
@@ -160,11 +160,10 @@ public class FileExceptionHandlingTest {
             TaskManager manager = Managers.getFileBackedTasksManager(file);
             Task task = new Task("Задача с кириллицей", "Описание с символами: !@#$%^&*()", null, null);
             EpicTask epic = new EpicTask("Эпик с эмодзи 🚀");
-            SubTask subTask = new SubTask("Подзадача с кавычками \"test\"", epic.getId());
             assertDoesNotThrow(() -> {
                 manager.createTask(task);
                 manager.createEpic(epic);
-                manager.createSubTask(subTask);
+                manager.createSubTask(new SubTask("Подзадача с кавычками \"test\"", epic.getId()));
             });
             assertEquals(1, manager.getAllTasks().size());
             assertEquals(1, manager.getAllEpics().size());
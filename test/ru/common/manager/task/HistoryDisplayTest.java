@@ -11,9 +11,9 @@ public class HistoryDisplayTest {
         Task task1 = new Task("Задача 1", null, null);
         Task task2 = new Task("Задача 2", null, null);
         EpicTask epic = new EpicTask("Эпик");
-        SubTask subtask = new SubTask("Подзадача", epic.getId());
         manager.createTask(task1);
         manager.createEpic(epic);
+        SubTask subtask = new SubTask("Подзадача", epic.getId());
         manager.createTask(task2);
         manager.createSubTask(subtask);
         manager.getTaskById(task1.getId());
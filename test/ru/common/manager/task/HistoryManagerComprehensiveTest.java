@@ -9,6 +9,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 public class HistoryManagerComprehensiveTest {
     private HistoryManager historyManager;
+    private int lastId;
     @BeforeEach
     void setUp() {
         historyManager = new InMemoryHistoryManager();
@@ -27,7 +28,7 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void add_sameTaskMultipleTimes_shouldNotDuplicate() {
-        Task task = new Task("Test Task", "Description", null, null);
+        Task task = withId(new Task("Test Task", "Description", null, null));
         historyManager.add(task);
         historyManager.add(task);
         historyManager.add(task);
@@ -37,9 +38,9 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void add_sameTaskMultipleTimes_shouldMoveToEnd() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -52,8 +53,8 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void add_sameTaskTwice_shouldMoveToEnd() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task1);
@@ -64,9 +65,9 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void removeById_fromBeginning_shouldRemoveCorrectly() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -78,9 +79,9 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void removeById_fromMiddle_shouldRemoveCorrectly() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -92,9 +93,9 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void removeById_fromEnd_shouldRemoveCorrectly() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -106,7 +107,7 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void removeById_singleTask_shouldMakeHistoryEmpty() {
-        Task task = new Task("Test Task", "Description", null, null);
+        Task task = withId(new Task("Test Task", "Description", null, null));
         historyManager.add(task);
         historyManager.removeById(task.getId());
         List<Task> history = historyManager.getHistory();
@@ -114,10 +115,10 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void removeById_nonExistentId_shouldNotThrowException() {
-        Task task = new Task("Test Task", "Description", null, null);
+        Task task = withId(new Task("Test Task", "Description", null, null));
         historyManager.add(task);
         assertDoesNotThrow(() -> {
-            historyManager.removeById(999);
+            historyManager.removeById(task.getId() + 1);
         });
         List<Task> history = historyManager.getHistory();
         assertEquals(1, history.size());
@@ -131,7 +132,7 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void add_singleTask_shouldWorkCorrectly() {
-        Task task = new Task("Test Task", "Description", null, null);
+        Task task = withId(new Task("Test Task", "Description", null, null));
         historyManager.add(task);
         List<Task> history = historyManager.getHistory();
         assertEquals(1, history.size());
@@ -139,9 +140,9 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void add_multipleTasks_shouldMaintainOrder() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -153,8 +154,8 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void add_taskWithSameId_shouldReplaceExisting() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         Task task1New = new Task("Task 1 New", "New Description", null, null) {
@@ -172,10 +173,10 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void complexScenario_addRemoveAdd_shouldWorkCorrectly() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
-        Task task4 = new Task("Task 4", "Description 4", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
+        Task task4 = withId(new Task("Task 4", "Description 4", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -190,10 +191,10 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void complexScenario_multipleRemovals_shouldWorkCorrectly() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
-        Task task4 = new Task("Task 4", "Description 4", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
+        Task task4 = withId(new Task("Task 4", "Description 4", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -207,9 +208,9 @@ public class HistoryManagerComprehensiveTest {
     }
     @Test
     void complexScenario_allTasksRemoved_shouldBeEmpty() {
-        Task task1 = new Task("Task 1", "Description 1", null, null);
-        Task task2 = new Task("Task 2", "Description 2", null, null);
-        Task task3 = new Task("Task 3", "Description 3", null, null);
+        Task task1 = withId(new Task("Task 1", "Description 1", null, null));
+        Task task2 = withId(new Task("Task 2", "Description 2", null, null));
+        Task task3 = withId(new Task("Task 3", "Description 3", null, null));
         historyManager.add(task1);
         historyManager.add(task2);
         historyManager.add(task3);
@@ -222,7 +223,7 @@ public class HistoryManagerComprehensiveTest {
     @Test
     void addManyTasks_shouldMaintainPerformance() {
         for (int i = 0; i < 1000; i++) {
-            Task task = new Task("Task " + i, "Description " + i, null, null);
+            Task task = withId(new Task("Task " + i, "Description " + i, null, null));
             historyManager.add(task);
         }
         List<Task> history = historyManager.getHistory();
@@ -235,7 +236,7 @@ public class HistoryManagerComprehensiveTest {
     void removeManyTasks_shouldMaintainPerformance() {
         List<Integer> taskIds = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            Task task = new Task("Task " + i, "Description " + i, null, null);
+            Task task = withId(new Task("Task " + i, "Description " + i, null, null));
             historyManager.add(task);
             taskIds.add(task.getId());
         }
@@ -255,4 +256,8 @@ public class HistoryManagerComprehensiveTest {
         expectedIds.sort(Integer::compareTo);
         assertEquals(expectedIds, remainingIds);
     }
-}
\ No newline at end of file
+    private Task withId(Task task) {
+        task.setId(++lastId);
+        return task;
+    }
+}
@@ -5,10 +5,11 @@ import ru.common.model.task.Task;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 public class HistoryManagerTest {
+    private int lastId;
     @Test
     void storesSameInstanceAndReflectsChanges_noDuplicates() {
         HistoryManager history = Managers.getDefaultHistory();
-        Task t = new Task("A", "D", null, null);
+        Task t = withId(new Task("A", "D", null, null));
         history.add(t);
         t.setName("B");
         history.add(t);
@@ -20,8 +21,8 @@ public class HistoryManagerTest {
     @Test
     void deduplicatesAndMovesToEndOnRepeatedAdds() {
         HistoryManager history = Managers.getDefaultHistory();
-        Task t1 = new Task("T1", null, null);
-        Task t2 = new Task("T2", null, null);
+        Task t1 = withId(new Task("T1", null, null));
+        Task t2 = withId(new Task("T2", null, null));
         history.add(t1);
         history.add(t2);
         history.add(t1);
@@ -33,9 +34,9 @@ public class HistoryManagerTest {
     @Test
     void removeByIdRemovesFromLinkedStructure() {
         HistoryManager history = Managers.getDefaultHistory();
-        Task t1 = new Task("T1", null, null);
-        Task t2 = new Task("T2", null, null);
-        Task t3 = new Task("T3", null, null);
+        Task t1 = withId(new Task("T1", null, null));
+        Task t2 = withId(new Task("T2", null, null));
+        Task t3 = withId(new Task("T3", null, null));
         history.add(t1);
         history.add(t2);
         history.add(t3);
@@ -48,8 +49,8 @@ public class HistoryManagerTest {
     @Test
     void getHistoryAsStringContainsIdsAndOrder() {
         HistoryManager history = Managers.getDefaultHistory();
-        Task t1 = new Task("T1", null, null);
-        Task t2 = new Task("T2", null, null);
+        Task t1 = withId(new Task("T1", null, null));
+        Task t2 = withId(new Task("T2", null, null));
         history.add(t1);
         history.add(t2);
         String s = history.getHistoryAsString();
@@ -57,4 +58,8 @@ public class HistoryManagerTest {
         assertTrue(s.contains("ID: " + t2.getId()));
         assertTrue(s.indexOf("ID: " + t1.getId()) < s.indexOf("ID: " + t2.getId()));
     }
-}
\ No newline at end of file
+    private Task withId(Task task) {
+        task.setId(++lastId);
+        return task;
+    }
+}
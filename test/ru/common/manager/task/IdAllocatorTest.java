@@ -0,0 +1,71 @@
+package ru.common.manager.task;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+public class IdAllocatorTest {
+    @Test
+    void nextId_shouldIncrementFromHighWaterMark() {
+        IdAllocator allocator = new IdAllocator(10);
+        assertEquals(11, allocator.nextId());
+        assertEquals(12, allocator.nextId());
+        assertEquals(12, allocator.getHighWaterMark());
+    }
+    @Test
+    void reserve_shouldOnlyMoveHighWaterMarkForward() {
+        IdAllocator allocator = new IdAllocator();
+        allocator.reserve(42);
+        allocator.reserve(7);
+        assertEquals(42, allocator.getHighWaterMark());
+        assertEquals(43, allocator.nextId());
+    }
+    @Test
+    void leaseBlock_shouldHandOutContiguousRange() {
+        IdAllocator allocator = new IdAllocator(5);
+        IdAllocator.IdBlock block = allocator.leaseBlock(3);
+        assertEquals(3, block.remaining());
+        assertEquals(6, block.nextId());
+        assertEquals(7, block.nextId());
+        assertEquals(8, block.nextId());
+        assertFalse(block.hasNext());
+        assertThrows(IllegalStateException.class, block::nextId);
+        assertEquals(9, allocator.nextId());
+        assertThrows(IllegalArgumentException.class, () -> allocator.leaseBlock(0));
+    }
+    @Test
+    void parallelAllocation_shouldNeverRepeatIds() throws Exception {
+        IdAllocator allocator = new IdAllocator();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            boolean useBlocks = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    if (useBlocks) {
+                        IdAllocator.IdBlock block = allocator.leaseBlock(16);
+                        while (block.hasNext()) {
+                            ids.add(block.nextId());
+                        }
+                    } else {
+                        ids.add(allocator.nextId());
+                    }
+                }
+                return ids;
+            }));
+        }
+        Set<Integer> seen = new HashSet<>();
+        int total = 0;
+        for (Future<List<Integer>> future : futures) {
+            List<Integer> ids = future.get(10, TimeUnit.SECONDS);
+            total += ids.size();
+            seen.addAll(ids);
+        }
+        executor.shutdown();
+        assertEquals(total, seen.size());
+        assertEquals(total, allocator.getHighWaterMark());
+    }
+}
@@ -4,7 +4,9 @@ import ru.common.model.task.*;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
     @Override
@@ -59,15 +61,55 @@ public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager
         TaskManager manager = Managers.getDefault();
         Task t = new Task("T", null, null);
         EpicTask e = new EpicTask("E");
-        SubTask s = new SubTask("S", e.getId());
         manager.createTask(t);
         manager.createEpic(e);
+        SubTask s = new SubTask("S", e.getId());
         manager.createSubTask(s);
         assertEquals(t, manager.getTaskById(t.getId()));
         assertEquals(e, manager.getEpicById(e.getId()));
         assertEquals(s, manager.getSubTaskById(s.getId()));
     }
     @Test
+    void ids_shouldBeAssignedByOwningManagerOnCreate() {
+        InMemoryTaskManager first = new InMemoryTaskManager();
+        InMemoryTaskManager second = new InMemoryTaskManager();
+        Task unsaved = new Task("Unsaved", null, null);
+        assertEquals(0, unsaved.getId());
+        assertEquals(1, first.createTask(new Task("A", null, null)).getId());
+        assertEquals(1, second.createTask(new Task("B", null, null)).getId());
+        List<Task> batch = first.createTasks(List.of(new Task("C", null, null), new Task("D", null, null)));
+        assertEquals(List.of(2, 3), batch.stream().map(Task::getId).toList());
+        assertEquals(3, first.getIdAllocator().getHighWaterMark());
+    }
+    @Test
+    void pagesAndStreams_shouldFollowIdOrderAcrossWrites() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        for (int i = 0; i < 10; i++) {
+            manager.createTask(new Task("Task " + i, null, null));
+        }
+        Task removed = manager.getTaskById(4);
+        manager.removeTask(removed);
+        Task live = manager.getTaskById(5);
+        assertSame(live, manager.getTasksPage(3, 2).get(0));
+        assertEquals(List.of(5, 6), manager.getTasksPage(3, 2).stream().map(Task::getId).toList());
+        Stream<Task> stream = manager.streamTasks();
+        manager.createTask(new Task("Later", null, null));
+        assertEquals(9, stream.count());
+        assertEquals(List.of(10, 11), manager.getTasksPage(9, 5).stream().map(Task::getId).toList());
+    }
+    @Test
+    void unsavedTasks_shouldOnlyEqualThemselves() {
+        Task first = new Task("Same", null, null);
+        Task second = new Task("Same", null, null);
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertEquals(2, new HashSet<>(List.of(first, second)).size());
+        first.setId(5);
+        second.setId(5);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+    @Test
     void tasksWithManualAndGeneratedIdDoNotConflict() {
         TaskManager manager = Managers.getDefault();
         Task t1 = new Task("T1", null, null);
@@ -419,4 +461,182 @@ public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager
         System.out.println("\nВсего задач в приоритетном списке: " + prioritizedTasks.size());
         System.out.println("Задач без времени (исключены): 1");
     }
-}
\ No newline at end of file
+    @Test
+    void getAllTasks_betweenMutations_shouldReturnSameSnapshot() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        manager.createTask(new Task("Task 1", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(30)));
+        List<Task> first = manager.getAllTasks();
+        List<Task> prioritized = manager.getPrioritizedTasks();
+        assertSame(first, manager.getAllTasks());
+        assertSame(prioritized, manager.getPrioritizedTasks());
+        manager.createTask(new Task("Task 2", "Description", LocalDateTime.of(2024, 1, 1, 11, 0), Duration.ofMinutes(30)));
+        assertNotSame(first, manager.getAllTasks());
+        assertEquals(1, first.size());
+        assertEquals(2, manager.getAllTasks().size());
+        assertEquals(2, manager.getPrioritizedTasks().size());
+    }
+    @Test
+    void getAllTasks_shouldReturnUnmodifiableSnapshotSortedById() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        Task task1 = manager.createTask(new Task("Task 1", null, null));
+        Task task2 = manager.createTask(new Task("Task 2", null, null));
+        List<Task> all = manager.getAllTasks();
+        assertEquals(List.of(task1, task2), all);
+        assertThrows(UnsupportedOperationException.class, () -> all.add(task1));
+        assertThrows(UnsupportedOperationException.class, () -> manager.getPrioritizedTasks().clear());
+    }
+    @Test
+    void getSubTaskIds_shouldBeRefreshedAfterSubTaskRemoval() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        EpicTask epic = manager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = manager.createSubTask(new SubTask("SubTask", epic.getId()));
+        List<Integer> ids = epic.getSubTaskIds();
+        assertSame(ids, epic.getSubTaskIds());
+        assertEquals(1, epic.getSubTaskCount());
+        manager.removeSubTask(subTask.getId());
+        assertEquals(List.of(subTask.getId()), ids);
+        assertTrue(epic.getSubTaskIds().isEmpty());
+        assertEquals(0, epic.getSubTaskCount());
+    }
+    @Test
+    void snapshot_shouldKeepEpicSubTaskIdsOfItsVersion() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        EpicTask epic = manager.createEpic(new EpicTask("Epic"));
+        SubTask first = manager.createSubTask(new SubTask("First", epic.getId()));
+        TaskManager snapshot = manager.snapshot();
+        SubTask second = manager.createSubTask(new SubTask("Second", epic.getId()));
+        manager.removeSubTask(first.getId());
+        assertEquals(List.of(first.getId()), snapshot.getEpicById(epic.getId()).getSubTaskIds());
+        assertEquals(List.of(second.getId()), manager.getEpicById(epic.getId()).getSubTaskIds());
+    }
+    @Test
+    void undo_createTask_shouldRemoveTaskAndRedoShouldRestoreIt() {
+        Task task = taskManager.createTask(new Task("Task", null, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1)));
+        assertTrue(taskManager.undo());
+        assertNull(taskManager.getTaskById(task.getId()));
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+        assertTrue(taskManager.canRedo());
+        assertTrue(taskManager.redo());
+        assertEquals("Task", taskManager.getTaskById(task.getId()).getName());
+        assertEquals(1, taskManager.getPrioritizedTasks().size());
+        assertFalse(taskManager.redo());
+    }
+    @Test
+    void undo_updateTask_shouldRestorePreviousState() {
+        Task task = taskManager.createTask(new Task("Before", null, null));
+        Task changed = task.copy();
+        changed.setName("After");
+        changed.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(changed);
+        taskManager.undo();
+        Task restored = taskManager.getTaskById(task.getId());
+        assertEquals("Before", restored.getName());
+        assertEquals(TaskStatus.NEW, restored.getStatus());
+        assertEquals(List.of(task.getId()), taskManager.search("before", 10));
+        assertTrue(taskManager.search("after", 10).isEmpty());
+        assertTrue(restored.getVersion() > changed.getVersion());
+    }
+    @Test
+    void undo_removeEpic_shouldRestoreEpicWithSubTasks() {
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask done = new SubTask("Done", "Description", epic.getId());
+        done.setStatus(TaskStatus.DONE);
+        SubTask open = new SubTask("Open", "Description", epic.getId());
+        taskManager.createSubTasks(List.of(done, open));
+        taskManager.removeEpic(epic);
+        assertTrue(taskManager.getAllSubTasks().isEmpty());
+        assertTrue(taskManager.undo());
+        assertEquals(2, taskManager.getSubTasksByEpicId(epic.getId()).size());
+        assertEquals(TaskStatus.IN_PROGRESS, taskManager.getEpicById(epic.getId()).getStatus());
+        SubTask reopened = taskManager.getSubTaskById(open.getId());
+        reopened.setStatus(TaskStatus.DONE);
+        taskManager.updateSubTask(reopened);
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+    }
+    @Test
+    void undo_removeAllEpics_shouldRestoreEverything() {
+        EpicTask first = taskManager.createEpic(new EpicTask("First"));
+        EpicTask second = taskManager.createEpic(new EpicTask("Second"));
+        taskManager.createSubTask(new SubTask("SubTask", "Description", first.getId()));
+        taskManager.removeAllEpics();
+        assertTrue(taskManager.undo());
+        assertEquals(List.of(first, second), taskManager.getAllEpics());
+        assertEquals(1, taskManager.getSubTasksByEpicId(first.getId()).size());
+    }
+    @Test
+    void undo_shouldSkipFailedMutationsAndNewMutationShouldClearRedo() {
+        Task first = taskManager.createTask(new Task("First", null, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(
+                new Task("Overlap", null, LocalDateTime.of(2024, 1, 1, 10, 30), Duration.ofHours(1))));
+        Task second = taskManager.createTask(new Task("Second", null, null));
+        taskManager.undo();
+        assertNull(taskManager.getTaskById(second.getId()));
+        assertNotNull(taskManager.getTaskById(first.getId()));
+        taskManager.createTask(new Task("Third", null, null));
+        assertFalse(taskManager.canRedo());
+        taskManager.undo();
+        taskManager.undo();
+        assertTrue(taskManager.getAllTasks().isEmpty());
+        assertFalse(taskManager.undo());
+    }
+    @Test
+    void undoLog_shouldEvictOldChangesOverBudget() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(new IdAllocator(), 1024);
+        for (int i = 0; i < 20; i++) {
+            manager.createTask(new Task("Task " + i, null, null));
+        }
+        int undone = 0;
+        while (manager.undo()) {
+            undone++;
+        }
+        assertTrue(undone > 0 && undone < 20);
+        assertEquals(20 - undone, manager.getAllTasks().size());
+    }
+    @Test
+    void compactTime_shouldKeepMinutesAndComputeEndTime() {
+        Task task = new Task("Task", null, LocalDateTime.of(2024, 1, 1, 10, 15, 42), Duration.ofMinutes(90).plusSeconds(30));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 15), task.getStartTime());
+        assertEquals(Duration.ofMinutes(90), task.getDuration());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 11, 45), task.getEndTime());
+        task.setStartTime(null);
+        assertNull(task.getStartTime());
+        assertFalse(task.hasStartTime());
+        assertNull(task.getEndTime());
+        assertThrows(IllegalArgumentException.class, () -> task.setDuration(Duration.ofDays(10_000_000)));
+    }
+    @Test
+    void compactStrings_shouldShareRepeatedNamesAndDescriptions() {
+        Task first = taskManager.createTask(new Task(new String("Повтор"), new String("Описание"), null, null));
+        Task second = taskManager.createTask(new Task(new String("Повтор"), new String("Описание"), null, null));
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.getName(), taskManager.snapshot().getTaskById(first.getId()).getName());
+    }
+    @Test
+    void getStats_shouldFollowUndoAndRedo() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task task = taskManager.createTask(new Task("Task", null, start, Duration.ofMinutes(45)));
+        taskManager.removeTask(task);
+        assertEquals(0, taskManager.getStats(start.plusDays(1)).getTotal());
+        taskManager.undo();
+        TaskStats stats = taskManager.getStats(start.plusDays(1));
+        assertEquals(1, stats.getCount(TaskType.TASK, TaskStatus.NEW));
+        assertEquals(45, stats.getScheduledMinutes());
+        assertEquals(1, stats.getOverdue());
+        taskManager.redo();
+        assertEquals(0, taskManager.getStats(start.plusDays(1)).getOverdue());
+    }
+    @Test
+    void undo_shouldRestoreStateUnaffectedBySnapshotReaders() {
+        Task task = taskManager.createTask(new Task("Task", null, null));
+        TaskSnapshot snapshot = taskManager.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getTaskById(task.getId()).setStatus(TaskStatus.DONE));
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        taskManager.updateTask(task);
+        assertTrue(taskManager.undo());
+        assertEquals(TaskStatus.NEW, taskManager.getTaskById(task.getId()).getStatus());
+        TaskStats stats = taskManager.getStats(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertEquals(1, stats.getCount(TaskType.TASK, TaskStatus.NEW));
+        assertEquals(0, stats.getCount(TaskType.TASK, TaskStatus.IN_PROGRESS));
+    }
+}
@@ -0,0 +1,162 @@
+package ru.common.manager.task;
+import org.junit.jupiter.api.Test;
+import ru.common.manager.event.TaskEvent;
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import static org.junit.jupiter.api.Assertions.*;
+public class ShardedTaskManagerTest extends TaskManagerTest<ShardedTaskManager> {
+    private static final int BOARD_A = 1_000_001;
+    private static final int BOARD_B = 1_000_002;
+    private static final int SHARDS = 4;
+    @Override
+    protected ShardedTaskManager createTaskManager() {
+        return new ShardedTaskManager(SHARDS);
+    }
+    private static Task taskWithId(int id, String name, LocalDateTime start) {
+        Task task = new Task(name, "Description", start, start != null ? Duration.ofMinutes(60) : null);
+        task.setId(id);
+        return task;
+    }
+    @Override
+    @Test
+    void search_shouldRankNameMatchesAboveDescriptionMatches() {
+        Task inDescription = taskManager.createTask(new Task("Созвон", "Обсудить релиз с командой", null, null));
+        Task inName = taskManager.createTask(new Task("Релиз 2.0", "Собрать сборку", null, null));
+        List<Integer> found = taskManager.search("релиз", 10);
+        assertEquals(Set.of(inName.getId(), inDescription.getId()), Set.copyOf(found));
+        assertEquals(1, taskManager.search("релиз", 1).size());
+    }
+    @Test
+    void constructor_withNonPositiveShardCount_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedTaskManager(0));
+    }
+    @Test
+    void createSubTask_shouldLiveOnParentEpicShard() {
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        for (int i = 0; i < SHARDS * 2; i++) {
+            SubTask subTask = taskManager.createSubTask(new SubTask("SubTask " + i, epic.getId()));
+            assertEquals(taskManager.shardIndexOf(epic.getId()), taskManager.shardIndexOf(subTask.getId()));
+            assertEquals(subTask, taskManager.getSubTaskById(subTask.getId()));
+        }
+        assertEquals(SHARDS * 2, taskManager.getSubTasksByEpicId(epic.getId()).size());
+    }
+    @Test
+    void updateSubTask_toEpicOnAnotherBoard_shouldThrow() {
+        EpicTask epicA = new EpicTask("Epic A");
+        epicA.setId(BOARD_A);
+        EpicTask epicB = new EpicTask("Epic B");
+        epicB.setId(BOARD_B);
+        taskManager.createEpic(epicA);
+        taskManager.createEpic(epicB);
+        SubTask subTask = taskManager.createSubTask(new SubTask("SubTask", epicA.getId()));
+        SubTask moved = subTask.copy();
+        moved.setParentId(epicB.getId());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateSubTask(moved));
+    }
+    @Test
+    void create_withIdLiveInAnotherShard_shouldGetFreshId() {
+        Task x = taskManager.createTask(new Task("X", null, null));
+        Task y = taskManager.createTask(new Task("Y", null, null));
+        Task z = taskManager.createTask(taskWithId(x.getId(), "Z", null));
+        assertEquals(List.of(1, 2, 3), taskManager.getAllTasks().stream().map(Task::getId).toList());
+        assertEquals(y, taskManager.getTaskById(y.getId()));
+        assertEquals("Z", taskManager.getTaskById(z.getId()).getName());
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = new SubTask("SubTask", epic.getId());
+        subTask.setId(y.getId());
+        taskManager.createSubTask(subTask);
+        assertEquals(5, subTask.getId());
+        assertEquals("Y", taskManager.getTaskById(y.getId()).getName());
+        assertEquals(subTask, taskManager.getSubTaskById(5));
+    }
+    @Test
+    void overlapAcrossBoards_shouldBeRejected() {
+        Task first = taskManager.createTask(taskWithId(BOARD_A, "First", LocalDateTime.of(2024, 1, 1, 10, 0)));
+        assertThrows(IllegalArgumentException.class, () ->
+                taskManager.createTask(taskWithId(BOARD_B, "Second", LocalDateTime.of(2024, 1, 1, 10, 30))));
+        Task second = taskManager.createTask(taskWithId(BOARD_B, "Second", LocalDateTime.of(2024, 1, 1, 11, 0)));
+        assertNotEquals(taskManager.shardIndexOf(first.getId()), taskManager.shardIndexOf(second.getId()));
+        Task moved = taskWithId(second.getId(), "Second", LocalDateTime.of(2024, 1, 1, 10, 45));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateTask(moved));
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = new SubTask("SubTask", epic.getId());
+        subTask.setStartTime(LocalDateTime.of(2024, 1, 1, 11, 30));
+        subTask.setDuration(Duration.ofMinutes(15));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createSubTask(subTask));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTasks(List.of(
+                taskWithId(BOARD_A + SHARDS, "Third", LocalDateTime.of(2024, 1, 2, 10, 0)),
+                taskWithId(BOARD_B + SHARDS, "Fourth", LocalDateTime.of(2024, 1, 2, 10, 30)))));
+        assertEquals(List.of(first, second), taskManager.getPrioritizedTasks());
+        assertTrue(taskManager.findTimeConflicts().isEmpty());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0),
+                taskManager.findNextFreeSlot(LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(30)));
+    }
+    @Test
+    void timedWrites_shouldOnlyWaitForOverlappingHours() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ShardedTaskManager manager = new ShardedTaskManager(2, () -> new ConcurrentTaskManager(new InMemoryTaskManager()) {
+            @Override
+            public Task createTask(Task task) {
+                if ("Slow".equals(task.getName())) {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.createTask(task);
+            }
+        });
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        CompletableFuture<Task> slow = CompletableFuture.supplyAsync(() -> manager.createTask(taskWithId(1, "Slow", base)));
+        CompletableFuture<Task> sameHour;
+        Task otherHour;
+        try {
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            otherHour = CompletableFuture.supplyAsync(() -> manager.createTask(taskWithId(2, "Other", base.plusHours(2))))
+                    .get(5, TimeUnit.SECONDS);
+            sameHour = CompletableFuture.supplyAsync(() -> manager.createTask(taskWithId(4, "Same", base.plusMinutes(30))));
+            assertThrows(TimeoutException.class, () -> sameHour.get(200, TimeUnit.MILLISECONDS));
+        } finally {
+            release.countDown();
+        }
+        assertNotNull(slow.get(5, TimeUnit.SECONDS));
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> sameHour.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, rejected.getCause());
+        assertEquals(List.of(1, otherHour.getId()), manager.getPrioritizedTasks().stream().map(Task::getId).toList());
+    }
+    @Test
+    void listings_shouldMergeShardsInIdOrder() {
+        for (int i = 0; i < 20; i++) {
+            taskManager.createTask(new Task("Task " + i, null, null));
+        }
+        List<Task> all = taskManager.getAllTasks();
+        assertEquals(20, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getId() < all.get(i).getId());
+        }
+        assertEquals(all, taskManager.streamTasks().toList());
+        assertEquals(all.subList(5, 12), taskManager.getTasksPage(all.get(4).getId(), 7));
+    }
+    @Test
+    void subscribe_shouldReceiveEventsFromAllShards() {
+        TaskEventSubscription subscription = taskManager.subscribe();
+        taskManager.createTask(taskWithId(BOARD_A, "First", null));
+        taskManager.createTask(taskWithId(BOARD_B, "Second", null));
+        assertEquals(Set.of(BOARD_A, BOARD_B),
+                Set.copyOf(subscription.drain(10).stream().map(TaskEvent::getTaskId).toList()));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.common.manager.task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.common.model.task.Task;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+public class SingleWriterTaskManagerTest extends TaskManagerTest<SingleWriterTaskManager> {
+    @Override
+    protected SingleWriterTaskManager createTaskManager() {
+        return new SingleWriterTaskManager(new InMemoryTaskManager());
+    }
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+    }
+    @Test
+    void submit_fromManyThreads_shouldApplyEveryMutation() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<CompletableFuture<Task>>> submitted = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int n = i;
+            submitted.add(executor.submit(() -> taskManager.submit(manager -> manager.createTask(new Task("Task " + n, null, null)))));
+        }
+        for (Future<CompletableFuture<Task>> future : submitted) {
+            assertNotNull(future.get().join());
+        }
+        executor.shutdown();
+        assertEquals(400, taskManager.getAllTasks().size());
+    }
+    @Test
+    void submit_failingMutation_shouldNotAffectOthersInBatch() {
+        CompletableFuture<Task> first = taskManager.submit(manager -> manager.createTask(
+                new Task("First", null, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1))));
+        CompletableFuture<Task> overlapping = taskManager.submit(manager -> manager.createTask(
+                new Task("Overlapping", null, LocalDateTime.of(2024, 1, 1, 10, 30), Duration.ofHours(1))));
+        CompletableFuture<Task> second = taskManager.submit(manager -> manager.createTask(new Task("Second", null, null)));
+        assertNotNull(first.join());
+        CompletionException error = assertThrows(CompletionException.class, overlapping::join);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertNotNull(second.join());
+        assertEquals(2, taskManager.getAllTasks().size());
+    }
+    @Test
+    void submit_mutationThrowingError_shouldFailOnlyThatMutation() {
+        CompletableFuture<Object> failing = taskManager.submit(manager -> {
+            throw new AssertionError("Сбой");
+        });
+        CompletionException error = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(AssertionError.class, error.getCause());
+        assertNotNull(taskManager.createTask(new Task("After", null, null)));
+        assertEquals(1, taskManager.getAllTasks().size());
+    }
+    @Test
+    void close_shouldRejectFurtherMutations() {
+        taskManager.close();
+        assertThrows(IllegalStateException.class, () -> taskManager.createTask(new Task("Task", null, null)));
+        assertTrue(taskManager.submit(manager -> null).isCompletedExceptionally());
+    }
+    @Test
+    void fileBackedDelegate_shouldPersistAppliedMutations() throws IOException {
+        File file = Files.createTempFile("kanban-writer", ".csv").toFile();
+        file.deleteOnExit();
+        try (SingleWriterTaskManager manager = new SingleWriterTaskManager(new FileBackedTaskManager(file))) {
+            List<CompletableFuture<Task>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int n = i;
+                futures.add(manager.submit(m -> m.createTask(new Task("Task " + n, null, null))));
+            }
+            futures.forEach(CompletableFuture::join);
+        }
+        assertEquals(50, Managers.getFileBackedTasksManager(file).getAllTasks().size());
+    }
+}
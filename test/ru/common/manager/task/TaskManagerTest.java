@@ -1,9 +1,14 @@
 package ru.common.manager.task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.common.manager.exceptions.VersionConflictException;
+import ru.common.manager.event.TaskEvent;
+import ru.common.manager.event.TaskEventSubscription;
+import ru.common.manager.event.TaskEventType;
 import ru.common.model.task.*;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 public abstract class TaskManagerTest<T extends TaskManager> {
@@ -189,6 +194,55 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         });
     }
     @Test
+    void createSubTask_withoutParent_shouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createSubTask(new SubTask("Orphan")));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createSubTasks(List.of(new SubTask("Orphan"))));
+        assertTrue(taskManager.getAllSubTasks().isEmpty());
+    }
+    @Test
+    void updateSubTask_withoutParent_shouldThrowAndKeepState() {
+        EpicTask epic = taskManager.createEpic(new EpicTask("Parent Epic"));
+        SubTask subTask = taskManager.createSubTask(new SubTask("Original SubTask", epic.getId()));
+        SubTask orphan = new SubTask("Orphan");
+        orphan.setId(subTask.getId());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateSubTask(orphan));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateTask(orphan));
+        SubTask stored = taskManager.getSubTaskById(subTask.getId());
+        assertEquals("Original SubTask", stored.getName());
+        assertEquals(epic.getId(), stored.getParentId());
+        assertEquals(List.of(subTask.getId()), taskManager.getEpicById(epic.getId()).getSubTaskIds());
+    }
+    @Test
+    void update_rejectedForOverlap_shouldKeepStoredSchedule() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task first = taskManager.createTask(new Task("First", null, base, Duration.ofMinutes(60)));
+        Task second = taskManager.createTask(new Task("Second", null, base.plusHours(2), Duration.ofMinutes(60)));
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = new SubTask("SubTask", epic.getId());
+        subTask.setStartTime(base.plusHours(4));
+        subTask.setDuration(Duration.ofMinutes(60));
+        taskManager.createSubTask(subTask);
+        Task movedTask = new Task("Second", null, base.plusMinutes(30), Duration.ofMinutes(60));
+        movedTask.setId(second.getId());
+        SubTask movedSubTask = new SubTask("SubTask", epic.getId());
+        movedSubTask.setId(subTask.getId());
+        movedSubTask.setStartTime(base.plusMinutes(30));
+        movedSubTask.setDuration(Duration.ofMinutes(60));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateTask(movedTask));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateSubTask(movedSubTask));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateTask(movedSubTask));
+        assertEquals(List.of(first.getId(), second.getId(), subTask.getId()),
+                taskManager.getPrioritizedTasks().stream().map(Task::getId).toList());
+        assertEquals(List.of(second.getId()),
+                taskManager.getPrioritizedTasks(base.plusHours(2), base.plusHours(3)).stream().map(Task::getId).toList());
+        assertEquals(base.plusHours(3), taskManager.findNextFreeSlot(base.plusMinutes(90), Duration.ofMinutes(60)));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.createTask(new Task("Late", null, base.plusMinutes(150), Duration.ofMinutes(15))));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.createTask(new Task("Later", null, base.plusMinutes(270), Duration.ofMinutes(15))));
+        assertNotNull(taskManager.createTask(new Task("Free", null, base.plusMinutes(75), Duration.ofMinutes(15))));
+    }
+    @Test
     void updateSubTask_shouldUpdateSubTaskFields() {
         EpicTask epic = new EpicTask("Parent Epic");
         taskManager.createEpic(epic);
@@ -276,9 +330,9 @@ public abstract class TaskManagerTest<T extends TaskManager> {
     void getHistory_shouldTrackViewedTasks() {
         Task task = new Task("Test Task", "Description", null, null);
         EpicTask epic = new EpicTask("Test Epic");
-        SubTask subTask = new SubTask("Test SubTask", epic.getId());
         taskManager.createTask(task);
         taskManager.createEpic(epic);
+        SubTask subTask = new SubTask("Test SubTask", epic.getId());
         taskManager.createSubTask(subTask);
         taskManager.getTaskById(task.getId());
         taskManager.getEpicById(epic.getId());
@@ -347,4 +401,342 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(task3.getId(), prioritizedTasks.get(1).getId());
         assertEquals(task1.getId(), prioritizedTasks.get(2).getId());
     }
-}
\ No newline at end of file
+    @Test
+    void createTasks_shouldCreateAllTasksWithDistinctIds() {
+        Task task1 = new Task("Task 1", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(60));
+        Task task2 = new Task("Task 2", "Description", LocalDateTime.of(2024, 1, 1, 11, 0), Duration.ofMinutes(60));
+        Task task3 = new Task("Task 3", "Description", null, null);
+        List<Task> created = taskManager.createTasks(List.of(task1, task2, task3));
+        assertEquals(3, created.size());
+        assertEquals(3, taskManager.getAllTasks().size());
+        assertNotEquals(task1.getId(), task2.getId());
+        assertNotEquals(task2.getId(), task3.getId());
+        assertEquals(2, taskManager.getPrioritizedTasks().size());
+    }
+    @Test
+    void createTasks_withOverlapInsideBatch_shouldCreateNothing() {
+        Task task1 = new Task("Task 1", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(60));
+        Task task2 = new Task("Task 2", "Description", null, null);
+        Task task3 = new Task("Task 3", "Description", LocalDateTime.of(2024, 1, 1, 10, 30), Duration.ofMinutes(60));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTasks(List.of(task1, task2, task3)));
+        assertTrue(taskManager.getAllTasks().isEmpty());
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+    }
+    @Test
+    void createTasks_withOverlapWithExistingTask_shouldCreateNothing() {
+        Task existing = new Task("Existing", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(60));
+        taskManager.createTask(existing);
+        Task task1 = new Task("Task 1", "Description", LocalDateTime.of(2024, 1, 1, 8, 0), Duration.ofMinutes(60));
+        Task task2 = new Task("Task 2", "Description", LocalDateTime.of(2024, 1, 1, 10, 59), Duration.ofMinutes(10));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTasks(List.of(task1, task2)));
+        assertEquals(1, taskManager.getAllTasks().size());
+        assertEquals(1, taskManager.getPrioritizedTasks().size());
+    }
+    @Test
+    void createSubTasks_shouldCreateAllSubTasksAndUpdateEpic() {
+        EpicTask epic = new EpicTask("Parent Epic");
+        taskManager.createEpic(epic);
+        SubTask subTask1 = new SubTask("SubTask 1", "Description", epic.getId());
+        subTask1.setStatus(TaskStatus.DONE);
+        subTask1.setStartTime(LocalDateTime.of(2024, 1, 1, 10, 0));
+        subTask1.setDuration(Duration.ofMinutes(30));
+        SubTask subTask2 = new SubTask("SubTask 2", "Description", epic.getId());
+        subTask2.setStartTime(LocalDateTime.of(2024, 1, 1, 12, 0));
+        subTask2.setDuration(Duration.ofMinutes(30));
+        List<SubTask> created = taskManager.createSubTasks(List.of(subTask1, subTask2));
+        assertEquals(2, created.size());
+        assertEquals(2, taskManager.getSubTasksByEpicId(epic.getId()).size());
+        EpicTask storedEpic = taskManager.getEpicById(epic.getId());
+        assertEquals(TaskStatus.IN_PROGRESS, storedEpic.getStatus());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), storedEpic.getStartTime());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 12, 30), storedEpic.getEndTime());
+    }
+    @Test
+    void createSubTasks_withNonExistentEpic_shouldCreateNothing() {
+        EpicTask epic = new EpicTask("Parent Epic");
+        taskManager.createEpic(epic);
+        SubTask valid = new SubTask("Valid", epic.getId());
+        SubTask orphan = new SubTask("Orphan", 999);
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createSubTasks(List.of(valid, orphan)));
+        assertTrue(taskManager.getAllSubTasks().isEmpty());
+    }
+    @Test
+    void getTasksPage_shouldWalkAllTasksInIdOrder() {
+        Task task1 = taskManager.createTask(new Task("Task 1", null, null));
+        Task task2 = taskManager.createTask(new Task("Task 2", null, null));
+        Task task3 = taskManager.createTask(new Task("Task 3", null, null));
+        List<Task> firstPage = taskManager.getTasksPage(0, 2);
+        assertEquals(List.of(task1, task2), firstPage);
+        List<Task> secondPage = taskManager.getTasksPage(firstPage.get(1).getId(), 2);
+        assertEquals(List.of(task3), secondPage);
+        assertTrue(taskManager.getTasksPage(task3.getId(), 2).isEmpty());
+    }
+    @Test
+    void getTasksPage_withNonPositiveLimit_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasksPage(0, 0));
+    }
+    @Test
+    void streamSubTasks_shouldReturnSubTasksInIdOrder() {
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask1 = taskManager.createSubTask(new SubTask("SubTask 1", epic.getId()));
+        SubTask subTask2 = taskManager.createSubTask(new SubTask("SubTask 2", epic.getId()));
+        assertEquals(List.of(subTask1, subTask2), taskManager.streamSubTasks().toList());
+        assertEquals(List.of(subTask2), taskManager.getSubTasksPage(subTask1.getId(), 10));
+        assertEquals(List.of(epic), taskManager.streamEpics().toList());
+    }
+    @Test
+    void getPrioritizedTasksInRange_shouldReturnOnlyTasksIntersectingRange() {
+        Task monday = taskManager.createTask(new Task("Monday", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(60)));
+        Task overnight = taskManager.createTask(new Task("Overnight", "Description", LocalDateTime.of(2024, 1, 1, 23, 0), Duration.ofMinutes(120)));
+        Task tuesday = taskManager.createTask(new Task("Tuesday", "Description", LocalDateTime.of(2024, 1, 2, 10, 0), Duration.ofMinutes(60)));
+        taskManager.createTask(new Task("Unscheduled", "Description", null, null));
+        assertEquals(List.of(overnight, tuesday),
+                taskManager.getPrioritizedTasks(LocalDateTime.of(2024, 1, 2, 0, 0), LocalDateTime.of(2024, 1, 3, 0, 0)));
+        assertEquals(List.of(monday, overnight),
+                taskManager.getPrioritizedTasks(null, LocalDateTime.of(2024, 1, 2, 0, 0)));
+        assertEquals(3, taskManager.getPrioritizedTasks(null, null).size());
+    }
+    @Test
+    void getPrioritizedTasksInRange_withReversedBounds_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getPrioritizedTasks(
+                LocalDateTime.of(2024, 1, 2, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0)));
+    }
+    @Test
+    void findNextFreeSlot_shouldReturnSlotThatCanBeBooked() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        taskManager.createTask(new Task("Task 1", "Description", base, Duration.ofMinutes(60)));
+        taskManager.createTask(new Task("Task 2", "Description", base.plusMinutes(80), Duration.ofMinutes(60)));
+        LocalDateTime slot = taskManager.findNextFreeSlot(base, Duration.ofMinutes(30));
+        assertEquals(base.plusMinutes(140), slot);
+        assertDoesNotThrow(() -> taskManager.createTask(new Task("Booked", "Description", slot, Duration.ofMinutes(30))));
+        assertEquals(base.plusMinutes(60), taskManager.findNextFreeSlot(base, Duration.ofMinutes(20)));
+    }
+    @Test
+    void findNextFreeSlot_pastMaxDateTime_shouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.findNextFreeSlot(LocalDateTime.MAX.minusMinutes(1), Duration.ofMinutes(10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.findNextFreeSlot(LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofDays(Long.MAX_VALUE / 86_400)));
+        LocalDateTime last = LocalDateTime.MAX.minusMinutes(10);
+        assertEquals(last, taskManager.findNextFreeSlot(last, Duration.ofMinutes(10)));
+    }
+    @Test
+    void findNextFreeSlot_withNonPositiveDuration_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.findNextFreeSlot(LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ZERO));
+    }
+    @Test
+    void findTimeConflicts_afterReschedule_shouldNotSeeOldSlot() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task moved = taskManager.createTask(new Task("Moved", null, base, Duration.ofMinutes(60)));
+        Task replaced = taskManager.createTask(new Task("Replaced", null, base.plusHours(1), Duration.ofMinutes(60)));
+        List<Integer> fixed = new ArrayList<>();
+        for (int hour = 2; hour < 6; hour++) {
+            fixed.add(taskManager.createTask(new Task("Fixed " + hour, null, base.plusHours(hour), Duration.ofMinutes(60))).getId());
+        }
+        Task edited = taskManager.getTaskById(moved.getId());
+        edited.setStartTime(base.plusHours(10));
+        taskManager.updateTask(edited);
+        Task replacement = new Task("Replaced", null, base.plusHours(11), Duration.ofMinutes(60));
+        replacement.setId(replaced.getId());
+        taskManager.updateTask(replacement);
+        Task first = taskManager.createTask(new Task("First", null, base, Duration.ofMinutes(60)));
+        Task second = taskManager.createTask(new Task("Second", null, base.plusHours(1), Duration.ofMinutes(60)));
+        assertTrue(taskManager.findTimeConflicts().isEmpty());
+        List<Integer> expected = new ArrayList<>(List.of(first.getId(), second.getId()));
+        expected.addAll(fixed);
+        expected.addAll(List.of(moved.getId(), replaced.getId()));
+        assertEquals(expected, taskManager.getPrioritizedTasks().stream().map(Task::getId).toList());
+    }
+    @Test
+    void findTimeConflicts_withoutOverlaps_shouldReturnEmptyList() {
+        taskManager.createTask(new Task("Task 1", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(60)));
+        taskManager.createTask(new Task("Task 2", "Description", LocalDateTime.of(2024, 1, 1, 11, 0), Duration.ofMinutes(60)));
+        assertTrue(taskManager.findTimeConflicts().isEmpty());
+    }
+    @Test
+    void getTasksByStatus_shouldFollowStatusTransitions() {
+        Task task = taskManager.createTask(new Task("Task", null, null));
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = taskManager.createSubTask(new SubTask("SubTask", epic.getId()));
+        assertEquals(List.of(task, epic, subTask), taskManager.getTasksByStatus(TaskStatus.NEW));
+        subTask.setStatus(TaskStatus.IN_PROGRESS);
+        taskManager.updateSubTask(subTask);
+        assertEquals(List.of(task), taskManager.getTasksByStatus(TaskStatus.NEW));
+        assertEquals(List.of(epic, subTask), taskManager.getTasksByStatus(TaskStatus.IN_PROGRESS));
+        task.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(task);
+        assertEquals(List.of(task), taskManager.getTasksByStatus(TaskStatus.DONE));
+        taskManager.removeEpic(epic);
+        assertTrue(taskManager.getTasksByStatus(TaskStatus.IN_PROGRESS).isEmpty());
+        taskManager.removeAllTasks();
+        assertTrue(taskManager.getTasksByStatus(TaskStatus.DONE).isEmpty());
+    }
+    @Test
+    void search_shouldRankNameMatchesAboveDescriptionMatches() {
+        Task inDescription = taskManager.createTask(new Task("Созвон", "Обсудить релиз с командой", null, null));
+        Task inName = taskManager.createTask(new Task("Релиз 2.0", "Собрать сборку", null, null));
+        taskManager.createTask(new Task("Отпуск", "Заполнить заявление", null, null));
+        assertEquals(List.of(inName.getId(), inDescription.getId()), taskManager.search("релиз", 10));
+        assertEquals(List.of(inName.getId()), taskManager.search("РЕЛИЗ", 1));
+        assertTrue(taskManager.search("дедлайн", 10).isEmpty());
+    }
+    @Test
+    void search_shouldReflectUpdatesAndRemovals() {
+        Task task = taskManager.createTask(new Task("Old name", "Description", null, null));
+        task.setName("Fresh name");
+        taskManager.updateTask(task);
+        assertTrue(taskManager.search("old", 10).isEmpty());
+        assertEquals(List.of(task.getId()), taskManager.search("fresh", 10));
+        taskManager.removeTask(task);
+        assertTrue(taskManager.search("fresh", 10).isEmpty());
+    }
+    @Test
+    void autocomplete_shouldReturnNamesWithPrefixInAlphabeticalOrder() {
+        taskManager.createTask(new Task("Release notes", null, null));
+        Task review = taskManager.createTask(new Task("Review PR", null, null));
+        taskManager.createEpic(new EpicTask("Refactoring"));
+        taskManager.createTask(new Task("Deploy", null, null));
+        assertEquals(List.of("Refactoring", "Release notes", "Review PR"), taskManager.autocomplete("re", 10));
+        assertEquals(List.of("Refactoring", "Release notes"), taskManager.autocomplete("RE", 2));
+        review.setName("Code review");
+        taskManager.updateTask(review);
+        assertEquals(List.of("Code review"), taskManager.autocomplete("code", 10));
+        assertEquals(List.of("Refactoring", "Release notes"), taskManager.autocomplete("re", 10));
+        assertTrue(taskManager.autocomplete("x", 10).isEmpty());
+    }
+    @Test
+    void snapshot_shouldNotSeeLaterChanges() {
+        Task task = taskManager.createTask(new Task("Task", "Description", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(60)));
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = taskManager.createSubTask(new SubTask("SubTask", epic.getId()));
+        TaskManager snapshot = taskManager.snapshot();
+        task.setName("Renamed");
+        taskManager.updateTask(task);
+        subTask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubTask(subTask);
+        taskManager.createTask(new Task("Later", null, null));
+        assertEquals(1, snapshot.getAllTasks().size());
+        assertEquals("Task", snapshot.getTaskById(task.getId()).getName());
+        assertEquals(TaskStatus.NEW, snapshot.getEpicById(epic.getId()).getStatus());
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+        assertEquals(List.of(subTask.getId()), snapshot.getSubTasksByEpicId(epic.getId()).stream().map(Task::getId).toList());
+        assertEquals(1, snapshot.getPrioritizedTasks().size());
+        assertEquals(List.of(task.getId()), snapshot.search("task", 10));
+        assertEquals(3, snapshot.getTasksByStatus(TaskStatus.NEW).size());
+    }
+    @Test
+    void snapshot_shouldBeReadOnly() {
+        TaskManager snapshot = taskManager.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.createTask(new Task("Task", null, null)));
+        assertThrows(UnsupportedOperationException.class, snapshot::removeAllTasks);
+    }
+    @Test
+    void snapshot_shouldHandOutReadOnlyTasks() {
+        Task task = taskManager.createTask(new Task("Task", null, null));
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = taskManager.createSubTask(new SubTask("SubTask", epic.getId()));
+        TaskManager snapshot = taskManager.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getTaskById(task.getId()).setStatus(TaskStatus.DONE));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getAllTasks().get(0).setName("Renamed"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getSubTaskById(subTask.getId()).setParentId(null));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getEpicById(epic.getId()).clearSubTaskIds());
+        Task editable = snapshot.getTaskById(task.getId()).copy();
+        editable.setStatus(TaskStatus.DONE);
+        assertEquals(TaskStatus.NEW, taskManager.snapshot().getTaskById(task.getId()).getStatus());
+        assertEquals(1, taskManager.getStats(LocalDateTime.of(2024, 1, 1, 0, 0)).getCount(TaskType.TASK, TaskStatus.NEW));
+        assertEquals(List.of(subTask.getId()), taskManager.getEpicById(epic.getId()).getSubTaskIds());
+    }
+    @Test
+    void subscribe_shouldEmitCreatedUpdatedAndRemovedEvents() {
+        TaskEventSubscription subscription = taskManager.subscribe();
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = taskManager.createSubTask(new SubTask("SubTask", epic.getId()));
+        taskManager.removeSubTask(subTask.getId());
+        List<TaskEvent> events = subscription.drain(100);
+        assertEquals(List.of(TaskEventType.CREATED, TaskEventType.CREATED, TaskEventType.UPDATED,
+                TaskEventType.REMOVED, TaskEventType.UPDATED), events.stream().map(TaskEvent::getType).toList());
+        assertEquals(List.of(epic.getId(), subTask.getId(), epic.getId(), subTask.getId(), epic.getId()),
+                events.stream().map(TaskEvent::getTaskId).toList());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).getVersion() > events.get(i - 1).getVersion());
+        }
+        assertEquals(TaskType.SUBTASK, events.get(1).getTaskType());
+    }
+    @Test
+    void version_shouldIncreaseOnEveryMutation() {
+        Task task = taskManager.createTask(new Task("Task", null, null));
+        assertEquals(1, task.getVersion());
+        task.setName("Renamed");
+        taskManager.updateTask(task);
+        assertEquals(2, task.getVersion());
+        assertEquals(2, taskManager.snapshot().getTaskById(task.getId()).getVersion());
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        taskManager.createSubTask(new SubTask("SubTask", epic.getId()));
+        assertEquals(2, taskManager.getEpicById(epic.getId()).getVersion());
+    }
+    @Test
+    void updateTaskWithVersion_shouldApplyOnlyWhenVersionMatches() {
+        Task task = taskManager.createTask(new Task("Task", null, null));
+        Task first = task.copy();
+        Task second = task.copy();
+        first.setName("First");
+        assertTrue(taskManager.updateTask(first, 1));
+        second.setName("Second");
+        assertThrows(VersionConflictException.class, () -> taskManager.updateTask(second, 1));
+        assertEquals("First", taskManager.getTaskById(task.getId()).getName());
+        assertTrue(taskManager.updateTask(second, 2));
+        assertEquals(3, taskManager.getTaskById(task.getId()).getVersion());
+    }
+    @Test
+    void updateTaskWithVersion_shouldReturnFalseForUnknownTask() {
+        assertFalse(taskManager.updateTask(new Task("Task", null, null), 0));
+    }
+    @Test
+    void updateEpicAndSubTaskWithVersion_shouldDetectConflicts() {
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = taskManager.createSubTask(new SubTask("SubTask", epic.getId()));
+        long epicVersion = epic.getVersion();
+        SubTask changed = subTask.copy();
+        changed.setStatus(TaskStatus.DONE);
+        assertTrue(taskManager.updateSubTask(changed, subTask.getVersion()));
+        assertThrows(VersionConflictException.class, () -> taskManager.updateSubTask(subTask.copy(), 1));
+        assertThrows(VersionConflictException.class, () -> taskManager.updateEpic(epic.copy(), epicVersion));
+        assertTrue(taskManager.updateEpic(epic.copy(), taskManager.getEpicById(epic.getId()).getVersion()));
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+    }
+    @Test
+    void getStats_shouldFollowMutationsAndMovingClock() {
+        LocalDateTime day = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Task early = taskManager.createTask(new Task("Early", null, day.plusHours(9), Duration.ofMinutes(30)));
+        Task late = taskManager.createTask(new Task("Late", null, day.plusHours(12), Duration.ofMinutes(60)));
+        taskManager.createTask(new Task("Unscheduled", null, null));
+        EpicTask epic = taskManager.createEpic(new EpicTask("Epic"));
+        SubTask subTask = new SubTask("Sub", epic.getId());
+        subTask.setStartTime(day.plusHours(10));
+        subTask.setDuration(Duration.ofMinutes(15));
+        subTask.setStatus(TaskStatus.DONE);
+        taskManager.createSubTask(subTask);
+        TaskStats stats = taskManager.getStats(day.plusHours(11));
+        assertEquals(3, stats.getCount(TaskType.TASK, TaskStatus.NEW));
+        assertEquals(1, stats.getCount(TaskType.EPIC, TaskStatus.DONE));
+        assertEquals(1, stats.getCount(TaskType.SUBTASK));
+        assertEquals(5, stats.getTotal());
+        assertEquals(105, stats.getScheduledMinutes());
+        assertEquals(1, stats.getOverdue());
+        assertEquals(0, taskManager.getStats(day.plusHours(9).plusMinutes(30)).getOverdue());
+        assertEquals(1, taskManager.getStats(day.plusHours(9).plusMinutes(30).plusSeconds(1)).getOverdue());
+        assertEquals(2, taskManager.getStats(day.plusHours(14)).getOverdue());
+        Task done = late.copy();
+        done.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(done);
+        assertEquals(1, taskManager.getStats(day.plusHours(14)).getOverdue());
+        taskManager.removeTask(early);
+        stats = taskManager.getStats(day.plusHours(14));
+        assertEquals(0, stats.getOverdue());
+        assertEquals(75, stats.getScheduledMinutes());
+        assertEquals(1, stats.getCount(TaskType.TASK, TaskStatus.NEW));
+        assertEquals(1, stats.getCount(TaskType.TASK, TaskStatus.DONE));
+        assertEquals(0, taskManager.getStats(day).getOverdue());
+    }
+}
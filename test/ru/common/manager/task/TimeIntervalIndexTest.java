@@ -0,0 +1,135 @@
+package ru.common.manager.task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.common.model.task.Task;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+public class TimeIntervalIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private TimeIntervalIndex index;
+    private int lastId;
+    @BeforeEach
+    void setUp() {
+        index = new TimeIntervalIndex();
+    }
+    @Test
+    void findOverlap_returnsEarliestOverlappingTask() {
+        Task early = withId(new Task("Early", BASE.plusHours(1), Duration.ofHours(2)));
+        Task late = withId(new Task("Late", BASE.plusHours(4), Duration.ofHours(1)));
+        index.add(late);
+        index.add(early);
+        assertSame(early, index.findOverlap(BASE.plusHours(2), BASE.plusHours(5), -1));
+        assertSame(late, index.findOverlap(BASE.plusHours(3), BASE.plusHours(5), -1));
+        assertNull(index.findOverlap(BASE.plusHours(3), BASE.plusHours(4), -1));
+    }
+    @Test
+    void findOverlap_ignoresExcludedIdAndZeroDuration() {
+        Task task = withId(new Task("Task", BASE, Duration.ofHours(1)));
+        Task point = withId(new Task("Point", BASE.plusMinutes(30), Duration.ZERO));
+        index.add(task);
+        index.add(point);
+        assertNull(index.findOverlap(BASE, BASE.plusHours(1), task.getId()));
+        assertNull(index.findOverlap(BASE.plusMinutes(10), BASE.plusMinutes(10), -1));
+        assertEquals(2, index.size());
+    }
+    @Test
+    void add_withChangedTimes_reindexesTask() {
+        Task task = withId(new Task("Task", BASE, Duration.ofHours(1)));
+        index.add(task);
+        task.setStartTime(BASE.plusHours(5));
+        index.add(task);
+        assertEquals(1, index.size());
+        assertNull(index.findOverlap(BASE, BASE.plusHours(1), -1));
+        assertSame(task, index.findOverlap(BASE.plusHours(5), BASE.plusHours(6), -1));
+    }
+    @Test
+    void remove_removesTaskEvenAfterItsTimeWasChanged() {
+        Task task = withId(new Task("Task", BASE, Duration.ofHours(1)));
+        index.add(task);
+        task.setStartTime(BASE.plusHours(5));
+        index.remove(task.getId());
+        assertEquals(0, index.size());
+        assertNull(index.findOverlap(BASE, BASE.plusHours(10), -1));
+    }
+    @Test
+    void findOverlap_matchesLinearScanOnRandomData() {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Task task = withId(new Task("T" + i, BASE.plusMinutes(random.nextInt(10_000)),
+                    Duration.ofMinutes(random.nextInt(120))));
+            tasks.add(task);
+            index.add(task);
+        }
+        for (int i = 0; i < 250; i++) {
+            index.remove(tasks.remove(random.nextInt(tasks.size())).getId());
+        }
+        for (int i = 0; i < 1000; i++) {
+            LocalDateTime start = BASE.plusMinutes(random.nextInt(10_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(60));
+            Task expected = tasks.stream()
+                    .filter(t -> t.getDuration().isPositive())
+                    .filter(t -> t.getStartTime().isBefore(end) && t.getEndTime().isAfter(start))
+                    .min((a, b) -> {
+                        int cmp = a.getStartTime().compareTo(b.getStartTime());
+                        return cmp != 0 ? cmp : Integer.compare(a.getId(), b.getId());
+                    })
+                    .orElse(null);
+            assertSame(expected, index.findOverlap(start, end, -1));
+        }
+    }
+    @Test
+    void findInRange_returnsIntersectingTasksInStartOrder() {
+        Task spanning = withId(new Task("Spanning", BASE, Duration.ofHours(3)));
+        Task inside = withId(new Task("Inside", BASE.plusHours(4), Duration.ofHours(1)));
+        Task point = withId(new Task("Point", BASE.plusHours(5), Duration.ZERO));
+        Task after = withId(new Task("After", BASE.plusHours(6), Duration.ofHours(1)));
+        index.add(after);
+        index.add(point);
+        index.add(inside);
+        index.add(spanning);
+        assertEquals(List.of(spanning, inside, point), index.findInRange(BASE.plusHours(2), BASE.plusHours(6)));
+        assertEquals(List.of(inside), index.findInRange(BASE.plusHours(3), BASE.plusHours(5)));
+        assertTrue(index.findInRange(BASE.plusHours(8), BASE.plusHours(9)).isEmpty());
+    }
+    @Test
+    void findInRange_matchesLinearScanOnRandomData() {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Task task = withId(new Task("T" + i, BASE.plusMinutes(random.nextInt(10_000)),
+                    Duration.ofMinutes(1 + random.nextInt(120))));
+            tasks.add(task);
+            index.add(task);
+        }
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = BASE.plusMinutes(random.nextInt(10_000));
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(600));
+            List<Task> expected = tasks.stream()
+                    .filter(t -> t.getStartTime().isBefore(to) && t.getEndTime().isAfter(from))
+                    .sorted((a, b) -> {
+                        int cmp = a.getStartTime().compareTo(b.getStartTime());
+                        return cmp != 0 ? cmp : Integer.compare(a.getId(), b.getId());
+                    })
+                    .toList();
+            assertEquals(expected, index.findInRange(from, to));
+        }
+    }
+    @Test
+    void findFreeSlot_skipsGapsThatAreTooShort() {
+        index.add(withId(new Task("First", BASE, Duration.ofHours(1))));
+        index.add(withId(new Task("Second", BASE.plusMinutes(90), Duration.ofHours(1))));
+        index.add(withId(new Task("Long", BASE.plusMinutes(100), Duration.ofHours(3))));
+        assertEquals(BASE.plusHours(1), index.findFreeSlot(BASE.plusMinutes(10), Duration.ofMinutes(30)));
+        assertEquals(BASE.plusMinutes(280), index.findFreeSlot(BASE.plusMinutes(10), Duration.ofMinutes(31)));
+        assertEquals(BASE.minusHours(2), index.findFreeSlot(BASE.minusHours(2), Duration.ofHours(2)));
+    }
+    private Task withId(Task task) {
+        task.setId(++lastId);
+        return task;
+    }
+}
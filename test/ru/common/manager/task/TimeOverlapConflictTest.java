@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import ru.common.model.task.*;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 public class TimeOverlapConflictTest {
     private InMemoryTaskManager taskManager;
@@ -233,4 +234,63 @@ public class TimeOverlapConflictTest {
         });
         assertEquals(2, taskManager.getAllTasks().size());
     }
-}
\ No newline at end of file
+    @Test
+    void removeTask_shouldFreeTimeSlot() {
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Duration duration = Duration.ofMinutes(60);
+        Task task1 = new Task("Task 1", "Description", baseTime, duration);
+        taskManager.createTask(task1);
+        taskManager.removeTask(task1);
+        Task task2 = new Task("Task 2", "Description", baseTime, duration);
+        assertDoesNotThrow(() -> {
+            taskManager.createTask(task2);
+        });
+    }
+    @Test
+    void removeAllEpics_shouldFreeSubTaskTimeSlots() {
+        EpicTask epic = new EpicTask("Parent Epic");
+        taskManager.createEpic(epic);
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Duration duration = Duration.ofMinutes(60);
+        SubTask subTask = new SubTask("SubTask", epic.getId());
+        subTask.setStartTime(baseTime);
+        subTask.setDuration(duration);
+        taskManager.createSubTask(subTask);
+        taskManager.removeAllEpics();
+        Task task = new Task("Task", "Description", baseTime, duration);
+        assertDoesNotThrow(() -> {
+            taskManager.createTask(task);
+        });
+        assertTrue(taskManager.getPrioritizedTasks().stream().noneMatch(t -> t.getId() == subTask.getId()));
+    }
+    @Test
+    void updateTask_movedAwayFromSlot_shouldFreeOldSlot() {
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Duration duration = Duration.ofMinutes(60);
+        Task task1 = new Task("Task 1", "Description", baseTime, duration);
+        taskManager.createTask(task1);
+        task1.setStartTime(baseTime.plusHours(3));
+        taskManager.updateTask(task1);
+        Task task2 = new Task("Task 2", "Description", baseTime, duration);
+        assertDoesNotThrow(() -> {
+            taskManager.createTask(task2);
+        });
+    }
+    @Test
+    void findTimeConflicts_shouldReportEveryOverlappingPair() {
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task task1 = taskManager.createTask(new Task("Task 1", "Description", baseTime, Duration.ofMinutes(60)));
+        Task task2 = taskManager.createTask(new Task("Task 2", "Description", baseTime.plusHours(2), Duration.ofMinutes(60)));
+        Task task3 = taskManager.createTask(new Task("Task 3", "Description", baseTime.plusHours(4), Duration.ofMinutes(60)));
+        Task task4 = taskManager.createTask(new Task("Task 4", "Description", baseTime.plusHours(6), Duration.ofMinutes(60)));
+        task2.setStartTime(baseTime.plusMinutes(30));
+        task3.setStartTime(baseTime.plusMinutes(45));
+        assertEquals(List.of(
+                new TaskConflict(task1, task2),
+                new TaskConflict(task1, task3),
+                new TaskConflict(task2, task3)
+        ), taskManager.findTimeConflicts());
+        assertFalse(taskManager.findTimeConflicts().stream()
+                .anyMatch(c -> c.getFirst() == task4 || c.getSecond() == task4));
+    }
+}
@@ -0,0 +1,66 @@
+package ru.common.manager.task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.common.model.task.EpicTask;
+import ru.common.model.task.SubTask;
+import ru.common.model.task.Task;
+import ru.common.model.task.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import static org.junit.jupiter.api.Assertions.*;
+public class VirtualThreadTaskManagerTest {
+    private VirtualThreadTaskManager manager;
+    @BeforeEach
+    void setUp() {
+        manager = Managers.getAsync(new InMemoryTaskManager());
+    }
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+    @Test
+    void constructor_withInMemoryManager_shouldWrapIntoConcurrentManager() {
+        assertInstanceOf(ConcurrentTaskManager.class, manager.getDelegate());
+    }
+    @Test
+    void createTask_manyInFlight_shouldApplyAll() {
+        List<CompletableFuture<Task>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(manager.createTask(new Task("Task " + i, null, null)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        assertEquals(500, manager.getAllTasks().join().size());
+    }
+    @Test
+    void operations_shouldComposeIntoPipeline() {
+        TaskStatus status = manager.createEpic(new EpicTask("Epic"))
+                .thenCompose(epic -> {
+                    SubTask subTask = new SubTask("SubTask", epic.getId());
+                    subTask.setStatus(TaskStatus.DONE);
+                    return manager.createSubTask(subTask).thenCompose(created -> manager.getEpicById(epic.getId()));
+                })
+                .thenApply(Task::getStatus)
+                .join();
+        assertEquals(TaskStatus.DONE, status);
+    }
+    @Test
+    void createTask_withOverlap_shouldCompleteExceptionally() {
+        manager.createTask(new Task("First", null, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1))).join();
+        CompletableFuture<Task> overlapping = manager.createTask(
+                new Task("Second", null, LocalDateTime.of(2024, 1, 1, 10, 30), Duration.ofHours(1)));
+        CompletionException error = assertThrows(CompletionException.class, overlapping::join);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals(1, manager.getPrioritizedTasks().join().size());
+    }
+    @Test
+    void removeAllTasks_shouldCompleteWithVoid() {
+        manager.createTask(new Task("Task", null, null)).join();
+        assertNull(manager.removeAllTasks().join());
+        assertTrue(manager.getAllTasks().join().isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package ru.common.util.collections;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+public class IntHashSetTest {
+    @Test
+    void addRemoveContains_shouldHandleZeroAndNegativeKeys() {
+        IntHashSet set = new IntHashSet();
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(42));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(7));
+        assertEquals(2, set.size());
+        int[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(new int[]{-1, 42}, values);
+    }
+    @Test
+    void copyConstructor_shouldCreateIndependentCopy() {
+        IntHashSet original = new IntHashSet();
+        original.add(1);
+        original.add(2);
+        IntHashSet copy = new IntHashSet(original);
+        copy.add(3);
+        original.remove(1);
+        assertEquals(1, original.size());
+        assertEquals(3, copy.size());
+        assertTrue(copy.contains(1));
+    }
+    @Test
+    void randomOperations_shouldMatchHashSet() {
+        Random random = new Random(11);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(3_000) - 50;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.add(key), set.add(key));
+                case 1 -> assertEquals(expected.remove(key), set.remove(key));
+                default -> assertEquals(expected.contains(key), set.contains(key));
+            }
+        }
+        Set<Integer> actual = new HashSet<>();
+        set.forEach(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), set.size());
+    }
+}
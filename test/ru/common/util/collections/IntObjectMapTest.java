@@ -0,0 +1,63 @@
+package ru.common.util.collections;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+public class IntObjectMapTest {
+    @Test
+    void putGetRemove_shouldBehaveLikeMap() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.put(1, "one"));
+        assertEquals("one", map.put(1, "uno"));
+        assertNull(map.put(0, "zero"));
+        assertNull(map.put(-5, "minus five"));
+        assertEquals(3, map.size());
+        assertEquals("uno", map.get(1));
+        assertEquals("zero", map.get(0));
+        assertEquals("minus five", map.get(-5));
+        assertNull(map.get(2));
+        assertEquals("uno", map.remove(1));
+        assertNull(map.remove(1));
+        assertFalse(map.containsKey(1));
+        assertEquals(2, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+    }
+    @Test
+    void put_withNullValue_shouldThrowException() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+    @Test
+    void values_shouldIterateAllEntriesAndDetectModification() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i * 10);
+        }
+        List<Integer> values = new ArrayList<>(map.values());
+        assertEquals(100, values.size());
+        assertEquals(100, new HashSet<>(values).size());
+        Iterator<Integer> iterator = map.values().iterator();
+        iterator.next();
+        map.put(1000, 1);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+    @Test
+    void randomOperations_shouldMatchHashMap() {
+        Random random = new Random(7);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 100;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        Map<Integer, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+}
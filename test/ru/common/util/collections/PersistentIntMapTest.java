@@ -0,0 +1,91 @@
+package ru.common.util.collections;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+public class PersistentIntMapTest {
+    @Test
+    void putAndRemove_shouldLeavePreviousVersionsUntouched() {
+        PersistentIntMap<String> empty = PersistentIntMap.empty();
+        PersistentIntMap<String> one = empty.put(1, "one");
+        PersistentIntMap<String> two = one.put(2, "two");
+        PersistentIntMap<String> replaced = two.put(1, "uno");
+        PersistentIntMap<String> removed = replaced.remove(2);
+        assertTrue(empty.isEmpty());
+        assertEquals(1, one.size());
+        assertNull(one.get(2));
+        assertEquals("one", two.get(1));
+        assertEquals("uno", replaced.get(1));
+        assertEquals(2, replaced.size());
+        assertEquals(1, removed.size());
+        assertNull(removed.get(2));
+        assertEquals("two", two.get(2));
+        assertSame(removed, removed.remove(42));
+    }
+    @Test
+    void put_withNullValue_shouldThrowException() {
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+    @Test
+    void values_shouldBeOrderedByKeyIncludingNegativeKeys() {
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        for (int key : new int[]{5, -3, Integer.MAX_VALUE, 0, Integer.MIN_VALUE, 64, 33}) {
+            map = map.put(key, key);
+        }
+        assertEquals(List.of(Integer.MIN_VALUE, -3, 0, 5, 33, 64, Integer.MAX_VALUE), map.values());
+    }
+    @Test
+    void valuesAfter_shouldReturnBoundedRangeInKeyOrder() {
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        for (int key : new int[]{5, -3, Integer.MAX_VALUE, 0, Integer.MIN_VALUE, 64, 33, 1_000_000}) {
+            map = map.put(key, key);
+        }
+        assertEquals(List.of(33, 64, 1_000_000), map.valuesAfter(5, 3));
+        assertEquals(List.of(-3, 0), map.valuesAfter(Integer.MIN_VALUE, 2));
+        assertTrue(map.valuesAfter(0, 0).isEmpty());
+        assertEquals(List.of(Integer.MAX_VALUE), map.valuesAfter(1_000_000, 10));
+        assertTrue(map.valuesAfter(Integer.MAX_VALUE, 10).isEmpty());
+        assertEquals(map.values(), map.stream().toList());
+    }
+    @Test
+    void valuesAfterAndIterator_shouldMatchTreeMap() {
+        Random random = new Random(17);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        for (int i = 0; i < 5_000; i++) {
+            int key = random.nextInt(100_000) - 50_000;
+            expected.put(key, key);
+            map = map.put(key, key);
+        }
+        List<Integer> iterated = new ArrayList<>();
+        map.iterator().forEachRemaining(iterated::add);
+        assertEquals(new ArrayList<>(expected.values()), iterated);
+        for (int i = 0; i < 500; i++) {
+            int after = random.nextInt(120_000) - 60_000;
+            int limit = 1 + random.nextInt(50);
+            List<Integer> page = expected.tailMap(after, false).values().stream().limit(limit).toList();
+            assertEquals(page, map.valuesAfter(after, limit));
+        }
+    }
+    @Test
+    void randomOperations_shouldMatchTreeMap() {
+        Random random = new Random(11);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(new ArrayList<>(expected.values()), map.values());
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.common.util.collections;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+public class PersistentIntSetTest {
+    @Test
+    void addAndRemove_shouldLeavePreviousVersionsUntouched() {
+        PersistentIntSet empty = PersistentIntSet.empty();
+        PersistentIntSet one = empty.add(1);
+        PersistentIntSet two = one.add(2);
+        PersistentIntSet removed = two.remove(1);
+        assertTrue(empty.isEmpty());
+        assertEquals(1, one.size());
+        assertFalse(one.contains(2));
+        assertTrue(two.contains(1));
+        assertTrue(two.contains(2));
+        assertFalse(removed.contains(1));
+        assertEquals(1, removed.size());
+        assertSame(removed, removed.remove(42));
+        assertSame(PersistentIntSet.empty(), removed.remove(2));
+    }
+    @Test
+    void toArray_shouldBeSortedIncludingNegativeKeys() {
+        PersistentIntSet set = PersistentIntSet.empty();
+        for (int key : new int[]{5, -3, Integer.MAX_VALUE, 0, 64, 33, 5}) {
+            set = set.add(key);
+        }
+        assertArrayEquals(new int[]{-3, 0, 5, 33, 64, Integer.MAX_VALUE}, set.toArray());
+        List<Integer> visited = new ArrayList<>();
+        set.forEach(visited::add);
+        assertEquals(List.of(-3, 0, 5, 33, 64, Integer.MAX_VALUE), visited);
+    }
+    @Test
+    void randomOperations_shouldMatchTreeSet() {
+        Random random = new Random(7);
+        TreeSet<Integer> expected = new TreeSet<>();
+        PersistentIntSet actual = PersistentIntSet.empty();
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextBoolean()) {
+                expected.add(key);
+                actual = actual.add(key);
+            } else {
+                expected.remove(key);
+                actual = actual.remove(key);
+            }
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.contains(key), actual.contains(key));
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual.toArray());
+    }
+}